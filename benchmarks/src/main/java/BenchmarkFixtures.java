@@ -0,0 +1,74 @@
+import java.util.function.IntSupplier;
+
+public class BenchmarkFixtures implements benchmarks.Fixtures {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // JMH needs benchmarks to be in a package, so they reach the classes in the default package through these suppliers.
+    // This class is listed as the service implementing benchmarks.Fixtures so the benchmarks can find it.
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @return fits the shapes in their initial order and gives the score
+     */
+    @Override
+    public IntSupplier fitShape(String filePath, int columnNumber) {
+        PackingInstance instance = ShapeSearch.readCSV(filePath, columnNumber, false);
+        return () -> new Solution(instance, 4563).getScore();
+    }
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood, 1 rotates, 2 moves a shape by k and 3 moves and rotates k shapes
+     * @return creates and evaluates a random neighbour of the initial solution and gives its score
+     */
+    @Override
+    public IntSupplier shake(String filePath, int columnNumber, int k) {
+        Solution x = new Solution(ShapeSearch.readCSV(filePath, columnNumber, false), 4563);
+        return () -> x.Shake(k).getScore();
+    }
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood
+     * @return runs first improvement from the initial solution and gives the score found
+     */
+    @Override
+    public IntSupplier firstImprovement(String filePath, int columnNumber, int k) {
+        Solution x = new Solution(ShapeSearch.readCSV(filePath, columnNumber, false), 4563);
+        return () -> x.FirstImprovment(k).getScore();
+    }
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood
+     * @return finds the best neighbour of the initial solution and gives its score
+     */
+    @Override
+    public IntSupplier bestInNeighbourhood(String filePath, int columnNumber, int k) {
+        Solution x = new Solution(ShapeSearch.readCSV(filePath, columnNumber, false), 4563);
+        return () -> x.getBestInNeighborhood(k).getScore();
+    }
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param method the name of the searching method
+     * @param tMax the max amount of time to search for in seconds
+     * @return runs a whole search and gives the amount of solutions it searched
+     */
+    @Override
+    public IntSupplier search(String filePath, int columnNumber, String method, double tMax) {
+        PackingInstance instance = ShapeSearch.readCSV(filePath, columnNumber, false);
+        SearchEngine engine = new SearchEngine();
+        SearchConfig config = new SearchConfig.Builder()
+                .method(SearchMethod.valueOf(method))
+                .tMax(tMax)
+                .build();
+        return () -> engine.search(instance, config).getCost();
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.ServiceLoader;
+import java.util.function.IntSupplier;
+
+/**
+ * The operations to benchmark. JMH needs benchmarks to be in a package, but the classes being benchmarked are in
+ * the default package which cannot be imported, so they are reached through this interface. It is implemented by
+ * BenchmarkFixtures in the default package, which is found once with ServiceLoader while setting up and then
+ * called directly, so every call is checked by the compiler.
+ */
+public interface Fixtures {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    /**
+     * @return the fixtures listed in META-INF/services/benchmarks.Fixtures
+     */
+    static Fixtures get() {
+        return ServiceLoader.load(Fixtures.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("There is no implementation of " + Fixtures.class.getName()));
+    }
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @return fits the shapes in their initial order and gives the score
+     */
+    IntSupplier fitShape(String filePath, int columnNumber);
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood, 1 rotates, 2 moves a shape by k and 3 moves and rotates k shapes
+     * @return creates and evaluates a random neighbour of the initial solution and gives its score
+     */
+    IntSupplier shake(String filePath, int columnNumber, int k);
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood
+     * @return runs first improvement from the initial solution and gives the score found
+     */
+    IntSupplier firstImprovement(String filePath, int columnNumber, int k);
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param k the neighbourhood
+     * @return finds the best neighbour of the initial solution and gives its score
+     */
+    IntSupplier bestInNeighbourhood(String filePath, int columnNumber, int k);
+
+    /**
+     * @param filePath the csv file of shape lists
+     * @param columnNumber which column of the CSV is to be read
+     * @param method the name of the searching method
+     * @param tMax the max amount of time to search for in seconds
+     * @return runs a whole search and gives the amount of solutions it searched
+     */
+    IntSupplier search(String filePath, int columnNumber, String method, double tMax);
+}
@@ -0,0 +1,66 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a whole run of each searching method. The time limited methods take tMax or longer,
+ * so the solutions searched per second reported by the evaluations counter is the figure to compare.
+ * Run from the top folder of the project so the shape lists can be found.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Param({"ShapeLists/GivenLists.csv"})
+    public String file;
+
+    @Param({"1"})
+    public int column;
+
+    @Param({"VND", "RVNS", "BVNS", "GVNS", "SVNS"})
+    public String method;
+
+    @Param({"0.1"})
+    public double tMax;
+
+    private IntSupplier search;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        // The amount of solutions searched
+        public long evaluations;
+    }
+
+    @Setup
+    public void setUp() {
+        search = Fixtures.get().search(file, column, method, tMax);
+    }
+
+    @Benchmark
+    public int search(Counters counters) {
+        int cost = search.getAsInt();
+        counters.evaluations += cost;
+        return cost;
+    }
+}
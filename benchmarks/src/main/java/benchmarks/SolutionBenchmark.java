@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks fitting a solution, each type of neighbour move and the two neighbourhood searches.
+ * Run from the top folder of the project so the shape lists can be found.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolutionBenchmark {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Param({"ShapeLists/GivenLists.csv", "ShapeLists/ToyLists.csv"})
+    public String file;
+
+    @Param({"1", "2", "3"})
+    public int column;
+
+    private IntSupplier fitShape;
+    private IntSupplier rotate;
+    private IntSupplier moveShapeByK;
+    private IntSupplier moveKShapes;
+    private IntSupplier firstImprovement;
+    private IntSupplier bestInNeighbourhood;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = Fixtures.get();
+        fitShape = fixtures.fitShape(file, column);
+        // Neighbourhood k uses move type k % 3, with k / 3 rounded up shapes or positions
+        rotate = fixtures.shake(file, column, 1);
+        moveShapeByK = fixtures.shake(file, column, 2);
+        moveKShapes = fixtures.shake(file, column, 3);
+        firstImprovement = fixtures.firstImprovement(file, column, 2);
+        bestInNeighbourhood = fixtures.bestInNeighbourhood(file, column, 2);
+    }
+
+    @Benchmark
+    public int fitShape() {
+        return fitShape.getAsInt();
+    }
+
+    @Benchmark
+    public int rotate() {
+        return rotate.getAsInt();
+    }
+
+    @Benchmark
+    public int moveShapeByK() {
+        return moveShapeByK.getAsInt();
+    }
+
+    @Benchmark
+    public int moveKShapes() {
+        return moveKShapes.getAsInt();
+    }
+
+    @Benchmark
+    public int firstImprovement() {
+        return firstImprovement.getAsInt();
+    }
+
+    @Benchmark
+    public int bestInNeighbourhood() {
+        return bestInNeighbourhood.getAsInt();
+    }
+}
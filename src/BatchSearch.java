@@ -0,0 +1,282 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class BatchSearch {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Solves many shape lists in one run so the start up and warm up of the JVM is only paid once.
+    // Every run of every list is searched on one shared pool of workers and the results are written
+    // in the order they were asked for, as JSON lines or as CSV if the output file ends with .csv.
+    //
+    // The lists are given as a csv file for every list in it, file.csv:column for one list,
+    // or a directory for every csv file in it. Other options are the same as a single search, plus
+    // -o <file> to write the results to a file instead of the console and -r <runs> for the runs of each method.
+
+    /**
+     * A shape list to be solved
+     */
+    private static class Target {
+        final String file;
+        final int column;
+        final PackingInstance instance;
+
+        Target(String file, int column, PackingInstance instance){
+            this.file = file;
+            this.column = column;
+            this.instance = instance;
+        }
+    }
+
+    /**
+     * Solves every list given in the options
+     * @param options the command line options, with the lists and batch options in others
+     */
+    static void run(SearchOptions options){
+        String output = null;
+        int runs = 10;
+        List<Target> targets = new ArrayList<>();
+        List<String> others = options.others;
+        for (int i = 0; i < others.size(); i++) {
+            if (others.get(i).equals("-o") && i + 1 < others.size()) {
+                output = others.get(++i);
+            } else if (others.get(i).equals("-r") && i + 1 < others.size()) {
+                try {
+                    runs = Integer.parseInt(others.get(++i));
+                } catch(Exception e){
+                    System.out.println("To set the runs of each method add the argument '-r' followed by the number of runs in the next argument");
+                }
+            } else {
+                addTargets(others.get(i), options.limitToTen, targets);
+            }
+        }
+        if (targets.isEmpty()) {
+            System.out.println("To solve lists in a batch give csv files, file.csv:column for a single list, or directories of csv files");
+            return;
+        }
+
+        // Search neighbourhoods one at a time unless more than one thread is asked for
+        ForkJoinPool pool = options.threads > 1 ? new ForkJoinPool(options.threads) : null;
+        // Every run of every list shares the workers
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, options.runThreads));
+        SearchEngine engine = new SearchEngine();
+        SearchTelemetry telemetry = ShapeSearch.startTelemetry(options);
+        ScheduledExecutorService dump = ShapeSearch.startDump(telemetry, options);
+        ConvergenceTrace trace = ShapeSearch.startTrace(options);
+        SearchConfig config = options.toConfigBuilder()
+                .pool(pool)
+                .telemetry(telemetry)
+                .listener(trace)
+                .build();
+        // Islands choose their own methods so they are searched once for each run
+        SearchMethod[] methods = options.method == null && options.islands == null ? SearchMethod.values()
+                : new SearchMethod[]{options.method == null ? SearchMethod.RVNS : options.method};
+
+        // Start every run before writing any so the workers are never left waiting
+        List<Target> runTargets = new ArrayList<>();
+        List<Future<SearchResult>> results = new ArrayList<>();
+        for (Target target : targets) {
+            for (SearchMethod method : methods) {
+                int seed = config.getSeed();
+                for (int i = 0; i < runs; i++) {
+                    // Change the seed value the same way as a single search
+                    seed += 1000;
+                    SearchConfig runConfig = config.toBuilder().method(method).seed(seed).build();
+                    runTargets.add(target);
+                    if (options.islands != null) {
+                        results.add(workers.submit(() -> engine.searchIslands(target.instance, options.islandConfigs(runConfig))));
+                    } else {
+                        results.add(workers.submit(() -> engine.search(target.instance, runConfig)));
+                    }
+                }
+            }
+        }
+
+        boolean csv = output != null && output.endsWith(".csv");
+        try (PrintWriter out = openOutput(output)) {
+            if (csv) {
+                out.println("file,column,name,method,seed,score,area,lowerBound,gap,cost,time,placements");
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Target target = runTargets.get(i);
+                SearchResult result;
+                try {
+                    result = results.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new RuntimeException("A run of " + target.file + " " + target.column + " failed", e);
+                }
+                out.println(csv ? toCsv(target, result) : toJson(target, result));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the results to " + output, e);
+        } finally {
+            workers.shutdown();
+            if (pool != null) {
+                pool.shutdown();
+            }
+            if (trace != null) {
+                trace.close();
+            }
+            ShapeSearch.stopTelemetry(telemetry, dump);
+        }
+        if (telemetry != null) {
+            telemetry.print(System.err);
+        }
+    }
+
+    /**
+     * Read the lists named by an argument
+     * @param argument a csv file, file.csv:column or a directory
+     * @param limitToTen whether to only read the first 10 shapes of each list
+     * @param targets the lists to add to
+     */
+    private static void addTargets(String argument, boolean limitToTen, List<Target> targets){
+        String file = argument;
+        int column = -1;
+        int colon = argument.lastIndexOf(':');
+        if (colon > 0 && colon + 1 < argument.length() && argument.substring(colon + 1).chars().allMatch(Character::isDigit)) {
+            file = argument.substring(0, colon);
+            column = Integer.parseInt(argument.substring(colon + 1));
+        }
+
+        Path path = Paths.get(file);
+        if (column == -1 && Files.isDirectory(path)) {
+            List<Path> files;
+            try (Stream<Path> list = Files.list(path)) {
+                files = list.filter(p -> p.toString().endsWith(".csv")).sorted().collect(Collectors.toList());
+            } catch (IOException e) {
+                System.err.println("Could not list the files in " + file + ": " + e.getMessage());
+                return;
+            }
+            for (Path p : files) {
+                addTargets(p.toString(), limitToTen, targets);
+            }
+            return;
+        }
+
+        List<PackingInstance> instances;
+        try {
+            instances = ShapeListReader.read(file, limitToTen);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not read the shape lists in " + file + ": " + e.getMessage());
+            return;
+        }
+        if (column == -1) {
+            for (int c = 0; c < instances.size(); c++) {
+                targets.add(new Target(file, c + 1, instances.get(c)));
+            }
+        } else if (column >= 1 && column <= instances.size()) {
+            targets.add(new Target(file, column, instances.get(column - 1)));
+        } else {
+            System.err.println(file + " has no list " + column + ", it has " + instances.size());
+        }
+    }
+
+    private static PrintWriter openOutput(String output) throws IOException {
+        if (output == null) {
+            // Do not close the console when the results are written
+            return new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() {
+                    flush();
+                }
+            };
+        }
+        return new PrintWriter(Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8));
+    }
+
+    private static String toJson(Target target, SearchResult result){
+        Solution x = result.getSolution();
+        int boxWidth = target.instance.getBoxWidth();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"file\":").append(jsonString(target.file))
+                .append(",\"column\":").append(target.column)
+                .append(",\"name\":").append(jsonString(target.instance.getName()))
+                .append(",\"method\":\"").append(result.getMethod()).append('"')
+                .append(",\"seed\":").append(result.getSeed())
+                .append(",\"score\":").append(x.getScore())
+                .append(",\"area\":").append((long) x.getScore() * boxWidth)
+                .append(",\"lowerBound\":").append(result.getLowerBound())
+                .append(",\"gap\":").append(result.getGap())
+                .append(",\"cost\":").append(result.getCost())
+                .append(",\"time\":").append(result.getElapsedTime() / 1E9)
+                .append(",\"placements\":[");
+        DrawingDimensions[] placements = x.getDrawDimensions();
+        for (int i = 0; i < placements.length; i++) {
+            DrawingDimensions p = placements[i];
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(jsonString(p.shape.getId()))
+                    .append(",\"x\":").append(p.x)
+                    .append(",\"y\":").append(p.y)
+                    .append(",\"width\":").append(p.shape.getWidth())
+                    .append(",\"height\":").append(p.shape.getHeight())
+                    .append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String toCsv(Target target, SearchResult result){
+        Solution x = result.getSolution();
+        int boxWidth = target.instance.getBoxWidth();
+        // Each placement is written as id x y width height, separated by semicolons
+        StringBuilder placements = new StringBuilder();
+        for (DrawingDimensions p : x.getDrawDimensions()) {
+            if (placements.length() > 0) {
+                placements.append(';');
+            }
+            placements.append(p.shape.getId()).append(' ').append(p.x).append(' ').append(p.y)
+                    .append(' ').append(p.shape.getWidth()).append(' ').append(p.shape.getHeight());
+        }
+        return csvString(target.file) + ',' + target.column + ',' + csvString(target.instance.getName())
+                + ',' + result.getMethod() + ',' + result.getSeed() + ',' + x.getScore()
+                + ',' + (long) x.getScore() * boxWidth + ',' + result.getLowerBound() + ',' + result.getGap()
+                + ',' + result.getCost()
+                + ',' + result.getElapsedTime() / 1E9 + ',' + csvString(placements.toString());
+    }
+
+    private static String jsonString(String value){
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String csvString(String value){
+        if (value == null) {
+            return "";
+        }
+        // Quote the value only if it would otherwise be split or misread
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
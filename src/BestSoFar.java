@@ -0,0 +1,24 @@
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BestSoFar implements SearchListener {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Keeps the best solution found so far by any of the searches it listens to, so it can be taken at any time
+    // without waiting for the searches to end. Searches hand over each improvement with compare and set, so no thread
+    // ever waits on another and a reader always sees the whole of the latest progress.
+    private final AtomicReference<SearchProgress> best = new AtomicReference<>();
+
+    @Override
+    public void improved(SearchProgress progress) {
+        // Ties keep the solution found first
+        best.accumulateAndGet(progress, (current, next) -> current == null || next.getScore() < current.getScore() ? next : current);
+    }
+
+    /**
+     * @return the best solution found so far and the state of its search when it was found, or null if there is none yet
+     */
+    public SearchProgress get() {
+        return best.get();
+    }
+}
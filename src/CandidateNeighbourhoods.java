@@ -0,0 +1,119 @@
+import java.util.Arrays;
+
+public class CandidateNeighbourhoods {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Bounded neighbourhoods for lists too long to search every index of every neighbourhood.
+    // Each neighbourhood only tries a fixed amount of positions: the shapes that reach highest, which decide the score,
+    // the shapes sitting over the most wasted space, and the rest picked at random. The move sizes are spaced out
+    // so each is about half as large again as the last, which covers moves from 1 up to the whole list in log n
+    // neighbourhoods. A sweep of VND then costs about candidates times log n evaluations instead of n squared.
+
+    /**
+     * Find the size of the moves made by a neighbourhood level, each about half as large again as the last
+     * @param level the level from 1 up, which is k divided by the number of move types rounded up
+     * @return the amount of shapes moved or rotated, or the distance a shape is moved
+     */
+    static int moveSize(int level){
+        int size = 1;
+        for (int l = 1; l < level; l++) {
+            size = Math.max(size + 1, size * 3 / 2);
+        }
+        return size;
+    }
+
+    /**
+     * @param shapes the amount of shapes
+     * @return the amount of levels whose move size is smaller than the amount of shapes, at least 1
+     */
+    static int levels(int shapes){
+        int levels = 1;
+        while (moveSize(levels + 1) < shapes) {
+            levels++;
+        }
+        return levels;
+    }
+
+    /**
+     * Pick the positions in the order worth moving. A third are the shapes with the highest tops,
+     * a third the shapes with the most empty space under them, and the rest are picked at random.
+     * A position is only picked once and the list is in the order the positions were picked.
+     *
+     * @param count the amount of positions to pick
+     * @param boxWidth the width of the sheet
+     * @param placedX x of the shape added at each placement
+     * @param placedY y of the shape added at each placement
+     * @param placedIndex index in the order of the shape added at each placement
+     * @param widths the width of the shape at each index in the order
+     * @param heights the height of the shape at each index in the order
+     * @param random the random values of the search
+     * @return the positions, all of them in order if count is at least the amount of shapes
+     */
+    static int[] select(int count, int boxWidth, int[] placedX, int[] placedY, int[] placedIndex, int[] widths, int[] heights,
+                        SearchRandom random){
+        int size = widths.length;
+        if (count >= size) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        // Replay the placements to measure the top of each shape and the empty space left under it.
+        // Each key holds the measure in the high bits and the position in the low bits, so sorting
+        // puts the greatest measure last and breaks ties towards the earliest position.
+        long[] tops = new long[size];
+        long[] wastes = new long[size];
+        Skyline skyline = new Skyline(boxWidth);
+        for (int p = 0; p < size; p++) {
+            int position = placedIndex[p];
+            int left = placedX[p];
+            int right = Math.min(boxWidth, left + widths[position]);
+            int top = placedY[p] + heights[position];
+            // A shape forced in at the left edge can be given a y of -1, which leaves no space under it
+            long waste = Math.max(0, (long) placedY[p] * (right - left) - skyline.area(left, right));
+            skyline.place(left, right, top);
+            long tieBreak = Integer.MAX_VALUE - position;
+            tops[p] = ((long) Math.max(0, top) << 32) | tieBreak;
+            wastes[p] = (Math.min(waste, Integer.MAX_VALUE) << 32) | tieBreak;
+        }
+        Arrays.sort(tops);
+        Arrays.sort(wastes);
+
+        int[] candidates = new int[count];
+        boolean[] picked = new boolean[size];
+        int found = 0;
+        found = pickGreatest(tops, count / 3, candidates, found, picked);
+        found = pickGreatest(wastes, 2 * (count / 3), candidates, found, picked);
+        // Fill the rest at random so every position can still be tried
+        while (found < count) {
+            int position = random.nextInt(size);
+            if (!picked[position]) {
+                picked[position] = true;
+                candidates[found++] = position;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Pick the positions with the greatest keys until the list holds an amount of positions
+     * @param keys the sorted keys, with the position in the low bits
+     * @param until the amount of positions the list holds after picking
+     * @param candidates the list of picked positions
+     * @param found the amount of positions already picked
+     * @param picked which positions have been picked
+     * @return the amount of positions picked
+     */
+    private static int pickGreatest(long[] keys, int until, int[] candidates, int found, boolean[] picked){
+        for (int i = keys.length - 1; i >= 0 && found < until; i--) {
+            int position = Integer.MAX_VALUE - (int) keys[i];
+            if (!picked[position]) {
+                picked[position] = true;
+                candidates[found++] = position;
+            }
+        }
+        return found;
+    }
+}
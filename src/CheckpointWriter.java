@@ -0,0 +1,106 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CheckpointWriter {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Saves the state of a search to its checkpoint file once every period. The state is copied on the search thread,
+    // which only takes a copy of the current order and random state, and written to disk on a single shared background
+    // thread so the search never waits on the disk. A checkpoint is skipped if the last one is still being written.
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path file;
+    private final long period;
+    private final long initialTime;
+    private final SearchConfig config;
+    private final PackingInstance instance;
+    private long nextSave;
+    private Future<?> pending;
+
+    /**
+     * Creates a writer for the checkpoints of a search
+     * @param file the checkpoint file
+     * @param periodSeconds the seconds between each checkpoint
+     * @param initialTime the value of System.nanoTime() the search would have started at if it had never been stopped
+     * @param config the settings of the search
+     * @param instance the shapes being searched
+     */
+    public CheckpointWriter(Path file, double periodSeconds, long initialTime, SearchConfig config, PackingInstance instance){
+        this.file = file;
+        this.period = (long) (periodSeconds * 1E9);
+        this.initialTime = initialTime;
+        this.config = config;
+        this.instance = instance;
+        nextSave = System.nanoTime() + period;
+    }
+
+    /**
+     * @return whether the period has passed since the last checkpoint and the last one has been written
+     */
+    boolean isDue(){
+        return System.nanoTime() - nextSave >= 0 && (pending == null || pending.isDone());
+    }
+
+    /**
+     * Save the state of the search in the background
+     * @param checkpoint the state of the search
+     */
+    void save(SearchCheckpoint checkpoint){
+        nextSave = System.nanoTime() + period;
+        pending = WRITER.submit(() -> write(checkpoint));
+    }
+
+    /**
+     * Save the state of the search and wait for it to be written, after any checkpoint still being written
+     * @param checkpoint the state of the search
+     */
+    void saveNow(SearchCheckpoint checkpoint){
+        save(checkpoint);
+        try {
+            pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Stopped waiting for the checkpoint " + file + " to be written, it may not hold the end of the search");
+        } catch (ExecutionException e) {
+            // Failures of the checkpoint itself are reported by write, this is anything it could not catch
+            System.err.println("Could not write the checkpoint " + file + ": " + e.getCause());
+        }
+    }
+
+    /**
+     * Creates a checkpoint of a search with the settings of this writer
+     * @param finished whether the search has finished
+     * @param cost the amount of solutions searched so far
+     * @param k the neighbourhood of the next step
+     * @param steps the steps taken in the current sweep
+     * @param current the current solution
+     * @param best the best solution, or null if it is the current solution
+     * @param bandit the bandit choosing each k, or null if the run is not adaptive
+     * @return the checkpoint
+     */
+    SearchCheckpoint checkpoint(boolean finished, int cost, int k, int steps, Solution current, Solution best, NeighbourhoodBandit bandit){
+        return new SearchCheckpoint(config.getMethod(), config.getSeed(), config.getKMax(instance), config.getLMax(instance),
+                config.getAlpha(), config.getCandidates(), instance.size(), instance.getBoxWidth(), finished, cost, System.nanoTime() - initialTime, k, steps,
+                current.getRandom().getState(), current.save(), best == null ? null : best.save(),
+                bandit == null ? null : bandit.getPlays(), bandit == null ? null : bandit.getSuccesses());
+    }
+
+    private void write(SearchCheckpoint checkpoint){
+        try {
+            checkpoint.write(file);
+        } catch (IOException | RuntimeException e) {
+            // A failed checkpoint should not stop the search, the next one may succeed. Nothing waits on a checkpoint
+            // written in the background, so the failure is reported here or it would be lost.
+            System.err.println("Could not write the checkpoint " + file + ": " + e);
+        }
+    }
+}
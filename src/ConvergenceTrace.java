@@ -0,0 +1,41 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class ConvergenceTrace implements SearchListener, Closeable {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Writes a line to a csv file for each improvement of every search, for looking at how searches converge after they end.
+    // Improvements are rare next to evaluations, so writing each one to a buffer costs the search almost nothing.
+    // The columns are the seconds since the search started, the solutions searched, the score, then the method,
+    // seed and k to tell the searches apart.
+    private final PrintWriter out;
+
+    /**
+     * Creates the trace file, replacing it if it exists
+     * @param file the csv file to write
+     * @throws IOException if the file could not be created
+     */
+    public ConvergenceTrace(String file) throws IOException {
+        out = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8));
+        out.println("time,evaluations,score,method,seed,k");
+    }
+
+    @Override
+    public synchronized void improved(SearchProgress progress) {
+        out.println(progress.getElapsedTime() / 1E9 + "," + progress.getCost() + "," + progress.getScore() + ","
+                + progress.getMethod() + "," + progress.getSeed() + "," + progress.getK());
+    }
+
+    /**
+     * Write any lines still in the buffer and close the file
+     */
+    @Override
+    public synchronized void close() {
+        out.close();
+    }
+}
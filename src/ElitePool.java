@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ElitePool {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The best solutions found by the islands of a search, shared between the threads running them without locks.
+    // Each slot is replaced by compare and set so an island offering a solution never waits on another.
+    // A solution is never changed once it is scored, so reading one placed by another thread is safe.
+    private final AtomicReferenceArray<Solution> slots;
+    private final LongAdder migrations = new LongAdder();
+
+    /**
+     * Creates an empty pool
+     * @param capacity the most solutions to keep
+     */
+    public ElitePool(int capacity){
+        slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    /**
+     * Keep a solution if the pool has room or it is better than the worst solution kept
+     * @param x an evaluated solution
+     * @return whether the solution was kept
+     */
+    public boolean offer(Solution x){
+        while (true) {
+            int worst = -1;
+            Solution worstSolution = null;
+            for (int i = 0; i < slots.length(); i++) {
+                Solution s = slots.get(i);
+                // Slots are filled in order and never emptied, so the first empty slot means there is room
+                if (s == null) {
+                    worst = i;
+                    worstSolution = null;
+                    break;
+                }
+                // The same order is only kept once
+                if (s.getHash() == x.getHash() && s.getScore() == x.getScore()) {
+                    return false;
+                }
+                if (worst == -1 || s.getScore() > worstSolution.getScore()) {
+                    worst = i;
+                    worstSolution = s;
+                }
+            }
+            if (worstSolution != null && worstSolution.getScore() <= x.getScore()) {
+                return false;
+            }
+            // Try again if another island changed the slot first
+            if (slots.compareAndSet(worst, worstSolution, x)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the best solution kept, or null if the pool is empty
+     */
+    public Solution best(){
+        Solution best = null;
+        for (int i = 0; i < slots.length(); i++) {
+            Solution s = slots.get(i);
+            if (s != null && (best == null || s.getScore() < best.getScore())) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the solutions kept, in no order
+     */
+    List<Solution> solutions(){
+        List<Solution> kept = new ArrayList<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Solution s = slots.get(i);
+            if (s != null) {
+                kept.add(s);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Count a solution taken from the pool by an island
+     */
+    void recordMigration(){
+        migrations.increment();
+    }
+
+    /**
+     * @return the amount of times an island moved to a solution from the pool
+     */
+    public long getMigrations(){
+        return migrations.sum();
+    }
+}
@@ -0,0 +1,136 @@
+public class EvaluationCache {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // A bounded map from the hash of an order of shapes to its score.
+    // Entries are replaced using the CLOCK algorithm and found through an open addressing index.
+    private final long[] entryHashes;
+    private final int[] entryScores;
+    private final boolean[] referenced;
+    private final int[] index; // Entry number plus one at each slot, 0 for an empty slot
+    private final int mask;
+    private int size;
+    private int hand;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates an empty cache
+     * @param capacity the most scores to keep
+     */
+    public EvaluationCache(int capacity){
+        entryHashes = new long[capacity];
+        entryScores = new int[capacity];
+        referenced = new boolean[capacity];
+        // Keep the index at most half full so searches stay short
+        index = new int[Integer.highestOneBit(Math.max(1, capacity)) << 2];
+        mask = index.length - 1;
+    }
+
+    /**
+     * Gives the hash of a shape at a position in the order. An order is hashed by combining these for every position
+     * with exclusive or, so a change to a few positions only needs those positions to be hashed again.
+     * @param position index in the order
+     * @param shape index of the shape
+     * @param rotated whether the shape is rotated
+     * @return the hash of the shape at the position
+     */
+    public static long hashOf(int position, int shape, boolean rotated){
+        long z = ((long) position << 32 | (long) shape << 1 | (rotated ? 1 : 0)) * 0x9E3779B97F4A7C15L;
+        // Mix the bits so every bit of the key affects every bit of the hash
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Look up the score of an order
+     * @param hash the hash of the order
+     * @return the score, or -1 if it is not in the cache
+     */
+    public int get(long hash){
+        for (int slot = (int) hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = index[slot] - 1;
+            if (entryHashes[entry] == hash) {
+                referenced[entry] = true;
+                hits++;
+                return entryScores[entry];
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * Store the score of an order, replacing an entry that has not been used recently if the cache is full
+     * @param hash the hash of the order
+     * @param score the score of the order
+     */
+    public void put(long hash, int score){
+        if (entryHashes.length == 0) {
+            return;
+        }
+        int entry;
+        if (size < entryHashes.length) {
+            entry = size++;
+        } else {
+            // Pass over entries that have been used since the hand last passed them
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % entryHashes.length;
+            }
+            entry = hand;
+            hand = (hand + 1) % entryHashes.length;
+            removeFromIndex(entry);
+        }
+        entryHashes[entry] = hash;
+        entryScores[entry] = score;
+        referenced[entry] = false;
+        int slot = (int) hash & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry + 1;
+    }
+
+    /**
+     * @return the amount of looked up orders that were in the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the amount of looked up orders that were not in the cache
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Remove an entry from the index, moving later entries back so none are left unreachable
+     * @param entry the entry to remove
+     */
+    private void removeFromIndex(int entry){
+        int slot = (int) entryHashes[entry] & mask;
+        while (index[slot] != entry + 1) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = 0;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (index[next] == 0) {
+                return;
+            }
+            int home = (int) entryHashes[index[next] - 1] & mask;
+            // Move the entry back if the empty slot is between its home and where it is now
+            boolean between = slot <= next ? (home <= slot || home > next) : (home <= slot && home > next);
+            if (between) {
+                index[slot] = index[next];
+                index[next] = 0;
+                slot = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+public class EvaluationScratch {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The arrays fitShape and the neighbourhood searches work in, kept by each thread and reset before each use instead
+    // of being made again for every evaluation. Nothing here outlives the call that takes it, so a thread can reuse
+    // them as soon as its evaluation returns. Arrays only grow, so after the first few evaluations none are made.
+    private static final ThreadLocal<EvaluationScratch> SCRATCH = ThreadLocal.withInitial(EvaluationScratch::new);
+
+    private Skyline skyline;
+    private int[] widths = new int[0];
+    private boolean[] placed = new boolean[0];
+    private final RemainingShapes remaining = new RemainingShapes();
+    private Neighbour[] neighbours = new Neighbour[0];
+    private long[] randomStates = new long[0];
+
+    /**
+     * @return the scratch space of the current thread
+     */
+    static EvaluationScratch get(){
+        return SCRATCH.get();
+    }
+
+    /**
+     * @param width the width of the sheet
+     * @return an empty skyline of the width
+     */
+    Skyline skyline(int width){
+        if (skyline == null || skyline.getWidth() != width) {
+            skyline = new Skyline(width);
+        } else {
+            skyline.reset();
+        }
+        return skyline;
+    }
+
+    /**
+     * @param size the amount of shapes
+     * @return an array for the width of each shape, holding at least size values
+     */
+    int[] widths(int size){
+        if (widths.length < size) {
+            widths = new int[size];
+        }
+        return widths;
+    }
+
+    /**
+     * @param size the amount of shapes
+     * @return an array for which shapes are placed, holding at least size values with the first size all false
+     */
+    boolean[] placed(int size){
+        if (placed.length < size) {
+            placed = new boolean[size];
+        } else {
+            Arrays.fill(placed, 0, size, false);
+        }
+        return placed;
+    }
+
+    /**
+     * @param widths the width of the shape at each position in the order
+     * @param size the amount of shapes
+     * @param added which positions have already been added, or null if none have
+     * @return the shapes still to be added
+     */
+    RemainingShapes remaining(int[] widths, int size, boolean[] added){
+        remaining.reset(widths, size, added);
+        return remaining;
+    }
+
+    /**
+     * @param count the amount of neighbours needed at once
+     * @return at least count neighbours, whose contents are left from their last use
+     */
+    Neighbour[] neighbours(int count){
+        if (neighbours.length < count) {
+            Neighbour[] grown = Arrays.copyOf(neighbours, count);
+            for (int i = neighbours.length; i < count; i++) {
+                grown[i] = new Neighbour();
+            }
+            neighbours = grown;
+        }
+        return neighbours;
+    }
+
+    /**
+     * @param count the amount of random states needed at once
+     * @return an array holding at least count states of two longs each, whose contents are left from their last use
+     */
+    long[] randomStates(int count){
+        if (randomStates.length < 2 * count) {
+            randomStates = new long[2 * count];
+        }
+        return randomStates;
+    }
+}
@@ -0,0 +1,43 @@
+public class Neighbour {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // A neighbour of a solution while it is being evaluated. Its arrays are written over for every neighbour a thread
+    // searches, so searching a neighbourhood makes no new objects and only an accepted neighbour is copied into a Solution.
+    int[] order;          // Index of each shape in the order it is fitted
+    long[] rotated;       // Bitset of which shapes are rotated, by shape index
+    long hash;            // Hash of the order and rotations
+    int moveType;         // Move that created this neighbour from its parent
+    int score = -1;       // -1 until the neighbour is evaluated
+    boolean dominated;    // Whether fitting stopped once the score could not be under the cutoff, so score is only a lower bound
+
+    /**
+     * Start a new neighbour from the order and rotations of its parent, which is not yet evaluated
+     * @param order the order of the parent
+     * @param rotated the rotations of the parent
+     * @param hash the hash of the parent
+     */
+    void copy(int[] order, long[] rotated, long hash){
+        // The arrays are only made again if the amount of shapes changed
+        if (this.order == null || this.order.length != order.length) {
+            this.order = new int[order.length];
+            this.rotated = new long[rotated.length];
+        }
+        System.arraycopy(order, 0, this.order, 0, order.length);
+        System.arraycopy(rotated, 0, this.rotated, 0, rotated.length);
+        this.hash = hash;
+        score = -1;
+        dominated = false;
+    }
+
+    /**
+     * Take the order, rotations and score of another neighbour
+     * @param other an evaluated neighbour
+     */
+    void copy(Neighbour other){
+        copy(other.order, other.rotated, other.hash);
+        moveType = other.moveType;
+        score = other.score;
+        dominated = other.dominated;
+    }
+}
@@ -0,0 +1,91 @@
+public class NeighbourhoodBandit {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Chooses which neighbourhood k to search next with the UCB1 rule, treating each k as an arm that pays out
+    // when the search moves to the solution it found. Every k is tried once in order before any is repeated,
+    // then the k with the best success rate plus a bonus for how rarely it has been tried is chosen.
+    private static final double EXPLORATION = Math.sqrt(2);
+    private final long[] plays;
+    private final long[] successes;
+    private long totalPlays;
+
+    /**
+     * Creates a bandit that has not tried any neighbourhood
+     * @param arms the amount of neighbourhoods, which are k from 1 up to arms
+     */
+    public NeighbourhoodBandit(int arms){
+        plays = new long[arms];
+        successes = new long[arms];
+    }
+
+    /**
+     * Creates a bandit that carries on from the plays and successes of another
+     * @param plays the times each neighbourhood has been searched
+     * @param successes the times searching each neighbourhood moved the search
+     */
+    public NeighbourhoodBandit(long[] plays, long[] successes){
+        this.plays = plays.clone();
+        this.successes = successes.clone();
+        for (long p : plays) {
+            totalPlays += p;
+        }
+    }
+
+    /**
+     * @return the times each neighbourhood has been searched, from k = 1 up
+     */
+    public long[] getPlays(){
+        return plays.clone();
+    }
+
+    /**
+     * @return the times searching each neighbourhood moved the search, from k = 1 up
+     */
+    public long[] getSuccesses(){
+        return successes.clone();
+    }
+
+    /**
+     * @return the amount of neighbourhoods to choose from
+     */
+    public int getArms(){
+        return plays.length;
+    }
+
+    /**
+     * Choose the next neighbourhood to search
+     * @return the neighbourhood k, from 1 up to the amount of arms
+     */
+    public int select(){
+        // Try every neighbourhood once first
+        if (totalPlays < plays.length) {
+            return (int) totalPlays + 1;
+        }
+        double logPlays = Math.log(totalPlays);
+        int best = 0;
+        double bestValue = -1;
+        for (int arm = 0; arm < plays.length; arm++) {
+            double value = (double) successes[arm] / plays[arm] + EXPLORATION * Math.sqrt(logPlays / plays[arm]);
+            // Ties go to the lowest k
+            if (value > bestValue) {
+                bestValue = value;
+                best = arm;
+            }
+        }
+        return best + 1;
+    }
+
+    /**
+     * Record the outcome of searching a neighbourhood
+     * @param k the neighbourhood searched
+     * @param moved whether the search moved to the solution found in the neighbourhood
+     */
+    public void update(int k, boolean moved){
+        plays[k - 1]++;
+        totalPlays++;
+        if (moved) {
+            successes[k - 1]++;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+public class PackingInstance {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The dimensions of each shape are stored once and solutions refer to shapes by their index
+    private final String name;
+    private final int itemArea;
+    private final int boxWidth;
+    private final int[] widths;
+    private final int[] heights;
+    private final Shape[] shapes;
+    private final Shape[] rotatedShapes;
+    private final int lowerBound;
+    private final boolean fullWidthShape;
+
+    /**
+     * Creates the table of shapes to be fitted onto a sheet
+     * @param shapes the shapes in the order they are first fitted
+     * @param boxWidth the width of the sheet
+     */
+    public PackingInstance(Shape[] shapes, int boxWidth){
+        this(shapes, boxWidth, null, -1);
+    }
+
+    /**
+     * Creates the table of shapes to be fitted onto a sheet, with the details given in the header of its list
+     * @param shapes the shapes in the order they are first fitted
+     * @param boxWidth the width of the sheet
+     * @param name the name of the list, or null if it has none
+     * @param itemArea the total area of the shapes given in the header, or -1 to add up the areas of the shapes
+     */
+    public PackingInstance(Shape[] shapes, int boxWidth, String name, int itemArea){
+        this.name = name;
+        this.boxWidth = boxWidth;
+        this.shapes = shapes.clone();
+        widths = new int[shapes.length];
+        heights = new int[shapes.length];
+        rotatedShapes = new Shape[shapes.length];
+        for (int i = 0; i < shapes.length; i++) {
+            widths[i] = shapes[i].getWidth();
+            heights[i] = shapes[i].getHeight();
+            // Keep a rotated copy so drawing a rotated shape does not create a new one
+            rotatedShapes[i] = new Shape(shapes[i].getId(), heights[i], widths[i]);
+        }
+        if (itemArea == -1) {
+            itemArea = 0;
+            for (Shape shape : shapes) {
+                itemArea += shape.getArea();
+            }
+        }
+        this.itemArea = itemArea;
+        lowerBound = Math.max(areaBound(), Math.max(tallestBound(), wideBound()));
+        boolean fullWidth = false;
+        for (int i = 0; i < shapes.length; i++) {
+            fullWidth |= Math.max(widths[i], heights[i]) >= boxWidth;
+        }
+        fullWidthShape = fullWidth;
+    }
+
+    /**
+     * @return the name of the list, or null if it has none
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the total area of the shapes
+     */
+    public int getItemArea() {
+        return itemArea;
+    }
+
+    public int getBoxWidth() {
+        return boxWidth;
+    }
+
+    /**
+     * Gives a height that no packing of the shapes can be lower than, the greatest of the area bound,
+     * the tallest shape bound and the wide shape bound
+     * @return the lower bound on the height
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Whether any shape can be fitted with a width of the whole sheet. Such a shape has no position beside
+     * the others so it is placed over the left of the sheet, which can leave the top lower than it was.
+     * @return whether a side of any shape is at least the width
+     */
+    public boolean hasFullWidthShape() {
+        return fullWidthShape;
+    }
+
+    /**
+     * The shapes cannot take up less than their area, so the height is at least the area over the width
+     * @return the area bound
+     */
+    private int areaBound() {
+        // The area is added up from the shapes as the header may count shapes that could not be used
+        long area = 0;
+        for (int i = 0; i < widths.length; i++) {
+            area += (long) widths[i] * heights[i];
+        }
+        return (int) ((area + boxWidth - 1) / boxWidth);
+    }
+
+    /**
+     * Every shape has to fit on the sheet, turned whichever way is lowest while still fitting within the width
+     * @return the tallest shape bound
+     */
+    private int tallestBound() {
+        int bound = 0;
+        for (int i = 0; i < widths.length; i++) {
+            bound = Math.max(bound, lowestHeight(i));
+        }
+        return bound;
+    }
+
+    /**
+     * Shapes wider than half the sheet whichever way they are turned cannot sit beside each other,
+     * so they are stacked on top of one another
+     * @return the wide shape bound
+     */
+    private int wideBound() {
+        int bound = 0;
+        for (int i = 0; i < widths.length; i++) {
+            // Either side is more than half the width, including a side too wide to fit at all
+            if (2 * widths[i] > boxWidth && 2 * heights[i] > boxWidth) {
+                bound += lowestHeight(i);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @param shape index of the shape
+     * @return the lowest height of the shape turned a way that fits within the width, or 0 if it never fits
+     */
+    private int lowestHeight(int shape) {
+        int height = Integer.MAX_VALUE;
+        if (widths[shape] <= boxWidth) {
+            height = heights[shape];
+        }
+        if (heights[shape] <= boxWidth) {
+            height = Math.min(height, widths[shape]);
+        }
+        return height == Integer.MAX_VALUE ? 0 : height;
+    }
+
+    /**
+     * @return the amount of shapes to be fitted
+     */
+    public int size() {
+        return widths.length;
+    }
+
+    /**
+     * @param shape index of the shape
+     * @param rotated whether the shape is rotated
+     * @return the width of the shape
+     */
+    public int getWidth(int shape, boolean rotated) {
+        return rotated ? heights[shape] : widths[shape];
+    }
+
+    /**
+     * @param shape index of the shape
+     * @param rotated whether the shape is rotated
+     * @return the height of the shape
+     */
+    public int getHeight(int shape, boolean rotated) {
+        return rotated ? widths[shape] : heights[shape];
+    }
+
+    /**
+     * @param shape index of the shape
+     * @param rotated whether the shape is rotated
+     * @return the shape with the dimensions it is fitted with
+     */
+    public Shape getShape(int shape, boolean rotated) {
+        return rotated ? rotatedShapes[shape] : shapes[shape];
+    }
+}
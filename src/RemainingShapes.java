@@ -0,0 +1,103 @@
+public class RemainingShapes {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The shapes still to be added while fitting an order, held as a segment tree over the positions in the order.
+    // Each leaf holds the width of the shape at its position, or NONE once it has been added, and each node holds
+    // the narrowest width below it. The first shape in the order that fits a gap is found by walking down from
+    // the root to the left most child narrow enough, so each lookup and removal takes log n steps.
+    private static final int NONE = Integer.MAX_VALUE;
+    private int leaves;
+    private int[] narrowest = new int[2];
+    private int size;
+
+    /**
+     * Creates an empty tree, to be filled by reset
+     */
+    public RemainingShapes(){
+        leaves = 1;
+        narrowest[1] = NONE;
+    }
+
+    /**
+     * Creates a tree holding every position in an order
+     * @param widths the width of the shape at each position in the order
+     * @param added which positions have already been added, or null if none have
+     */
+    public RemainingShapes(int[] widths, boolean[] added){
+        reset(widths, widths.length, added);
+    }
+
+    /**
+     * Fill the tree with the positions of another order, reusing its arrays if they are large enough
+     * @param widths the width of the shape at each position in the order
+     * @param count the amount of positions in the order, which may be fewer than the length of widths
+     * @param added which positions have already been added, or null if none have
+     */
+    public void reset(int[] widths, int count, boolean[] added){
+        int leaves = 1;
+        while (leaves < count) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        if (narrowest.length < 2 * leaves) {
+            narrowest = new int[2 * leaves];
+        }
+        size = 0;
+        for (int i = 0; i < leaves; i++) {
+            if (i < count && (added == null || !added[i])) {
+                narrowest[leaves + i] = widths[i];
+                size++;
+            } else {
+                narrowest[leaves + i] = NONE;
+            }
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            narrowest[node] = Math.min(narrowest[2 * node], narrowest[2 * node + 1]);
+        }
+    }
+
+    /**
+     * @return the amount of shapes still to be added
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * Find the earliest position in the order of a shape still to be added that is no wider than a gap
+     * @param gap the width of the gap
+     * @return the position, or -1 if no shape fits
+     */
+    public int firstFitting(int gap){
+        if (narrowest[1] > gap) {
+            return -1;
+        }
+        int node = 1;
+        while (node < leaves) {
+            // Go left whenever a shape on the left fits so the earliest position is found
+            node = narrowest[2 * node] <= gap ? 2 * node : 2 * node + 1;
+        }
+        return node - leaves;
+    }
+
+    /**
+     * @return the earliest position in the order of a shape still to be added, or -1 if there are none
+     */
+    public int first(){
+        return firstFitting(NONE - 1);
+    }
+
+    /**
+     * Mark the shape at a position as added
+     * @param position the position in the order
+     */
+    public void remove(int position){
+        int node = leaves + position;
+        narrowest[node] = NONE;
+        size--;
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            narrowest[node] = Math.min(narrowest[2 * node], narrowest[2 * node + 1]);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class SearchCheckpoint {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The state of a search at the start of a step, which is all that is needed to carry on the search as if it was never stopped.
+    // It is written as a small binary file: a header to check it belongs to the search being resumed, the counters
+    // of the run, the state of its random values, the current solution, the best solution if SVNS has moved away
+    // from it, and the bandit if adaptive. Each solution keeps the positions its neighbourhoods try if they have been
+    // picked, as picking them again would take other random values than the search that was stopped.
+    private static final int MAGIC = 0x564E5343; // VNSC
+    private static final int VERSION = 4;
+
+    /**
+     * The order, rotations and score of a solution, and the positions its neighbourhoods try
+     */
+    public static class SavedSolution {
+        final int score;
+        final int[] order;
+        final long[] rotated;
+        final int[] candidates; // Null if the positions have not been picked or every position is tried
+
+        SavedSolution(int score, int[] order, long[] rotated){
+            this(score, order, rotated, null);
+        }
+
+        SavedSolution(int score, int[] order, long[] rotated, int[] candidates){
+            this.score = score;
+            this.order = order;
+            this.rotated = rotated;
+            this.candidates = candidates;
+        }
+    }
+
+    final SearchMethod method;
+    final int seed;
+    final int kMax;
+    final int lMax;
+    final double alpha;
+    final int candidates;
+    final int size;
+    final int boxWidth;
+    final boolean finished;
+    final int cost;
+    final long elapsedTime;
+    final int k;
+    final int steps;
+    final long[] random;            // State of the random values of the search
+    final SavedSolution current;
+    final SavedSolution best;       // Null if the best solution is the current solution
+    final long[] banditPlays;       // Null if the run is not adaptive
+    final long[] banditSuccesses;
+
+    /**
+     * Creates a checkpoint of a search
+     * @param method the searching method
+     * @param seed the random seed of the search
+     * @param kMax the max neighbourhoods to test
+     * @param lMax the local max neighbourhoods to test in the VND
+     * @param alpha the multiplier to take a distant solution
+     * @param candidates the amount of positions each neighbourhood tries, or 0 for every position
+     * @param size the amount of shapes
+     * @param boxWidth the width of the sheet
+     * @param finished whether the search has finished, so resuming it only gives its result
+     * @param cost the amount of solutions searched so far
+     * @param elapsedTime how long the search has taken so far in nanoseconds
+     * @param k the neighbourhood of the next step
+     * @param steps the steps taken in the current sweep
+     * @param random the state of the random values of the search
+     * @param current the current solution
+     * @param best the best solution, or null if it is the current solution
+     * @param banditPlays the plays of each neighbourhood, or null if the run is not adaptive
+     * @param banditSuccesses the successes of each neighbourhood, or null if the run is not adaptive
+     */
+    SearchCheckpoint(SearchMethod method, int seed, int kMax, int lMax, double alpha, int candidates, int size, int boxWidth,
+                     boolean finished, int cost, long elapsedTime, int k, int steps, long[] random, SavedSolution current,
+                     SavedSolution best, long[] banditPlays, long[] banditSuccesses){
+        this.method = method;
+        this.seed = seed;
+        this.kMax = kMax;
+        this.lMax = lMax;
+        this.alpha = alpha;
+        this.candidates = candidates;
+        this.size = size;
+        this.boxWidth = boxWidth;
+        this.finished = finished;
+        this.cost = cost;
+        this.elapsedTime = elapsedTime;
+        this.k = k;
+        this.steps = steps;
+        this.random = random;
+        this.current = current;
+        this.best = best;
+        this.banditPlays = banditPlays;
+        this.banditSuccesses = banditSuccesses;
+    }
+
+    /**
+     * Check that this checkpoint was written by a search with the same settings and shapes
+     * @param config the settings of the search being resumed
+     * @param instance the shapes being searched
+     * @throws IllegalArgumentException if the checkpoint belongs to a different search
+     */
+    void checkMatches(SearchConfig config, PackingInstance instance){
+        if (method != config.getMethod() || seed != config.getSeed() || kMax != config.getKMax(instance)
+                || lMax != config.getLMax(instance) || alpha != config.getAlpha() || candidates != config.getCandidates()
+                || size != instance.size() || boxWidth != instance.getBoxWidth()) {
+            throw new IllegalArgumentException("The checkpoint is of a " + method + " search with seed " + seed + " of " + size
+                    + " shapes, which does not match the search being resumed");
+        }
+    }
+
+    /**
+     * Write the checkpoint to a file. It is written to a temporary file first and then moved over the file,
+     * so a search stopped while writing still leaves the previous checkpoint. The temporary file is removed if
+     * the checkpoint could not be written.
+     * @param file the file to write
+     * @throws IOException if the file could not be written
+     */
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        boolean moved = false;
+        try {
+            writeTo(temp);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            if (!moved) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Keep the failure that stopped the checkpoint rather than this one
+                }
+            }
+        }
+    }
+
+    private void writeTo(Path temp) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(method.name());
+            out.writeInt(seed);
+            out.writeInt(kMax);
+            out.writeInt(lMax);
+            out.writeDouble(alpha);
+            out.writeInt(candidates);
+            out.writeInt(size);
+            out.writeInt(boxWidth);
+            out.writeBoolean(finished);
+            out.writeInt(cost);
+            out.writeLong(elapsedTime);
+            out.writeInt(k);
+            out.writeInt(steps);
+            out.writeLong(random[0]);
+            out.writeLong(random[1]);
+            writeSolution(out, current);
+            out.writeBoolean(best != null);
+            if (best != null) {
+                writeSolution(out, best);
+            }
+            out.writeInt(banditPlays == null ? -1 : banditPlays.length);
+            if (banditPlays != null) {
+                for (int arm = 0; arm < banditPlays.length; arm++) {
+                    out.writeLong(banditPlays[arm]);
+                    out.writeLong(banditSuccesses[arm]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a checkpoint from a file
+     * @param file the file to read
+     * @return the checkpoint
+     * @throws IOException if the file could not be read or is not a checkpoint
+     */
+    static SearchCheckpoint read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a checkpoint");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(file + " is a checkpoint of version " + version + " but only version " + VERSION + " can be read");
+            }
+            SearchMethod method = SearchMethod.valueOf(in.readUTF());
+            int seed = in.readInt();
+            int kMax = in.readInt();
+            int lMax = in.readInt();
+            double alpha = in.readDouble();
+            int candidates = in.readInt();
+            int size = in.readInt();
+            int boxWidth = in.readInt();
+            boolean finished = in.readBoolean();
+            int cost = in.readInt();
+            long elapsedTime = in.readLong();
+            int k = in.readInt();
+            int steps = in.readInt();
+            long[] random = {in.readLong(), in.readLong()};
+            SavedSolution current = readSolution(in, size);
+            SavedSolution best = in.readBoolean() ? readSolution(in, size) : null;
+            int arms = in.readInt();
+            long[] plays = null, successes = null;
+            if (arms >= 0) {
+                plays = new long[arms];
+                successes = new long[arms];
+                for (int arm = 0; arm < arms; arm++) {
+                    plays[arm] = in.readLong();
+                    successes[arm] = in.readLong();
+                }
+            }
+            return new SearchCheckpoint(method, seed, kMax, lMax, alpha, candidates, size, boxWidth, finished, cost, elapsedTime,
+                    k, steps, random, current, best, plays, successes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + " is not a valid checkpoint", e);
+        }
+    }
+
+    private static void writeSolution(DataOutputStream out, SavedSolution solution) throws IOException {
+        out.writeInt(solution.score);
+        for (int shape : solution.order) {
+            out.writeInt(shape);
+        }
+        for (long word : solution.rotated) {
+            out.writeLong(word);
+        }
+        out.writeInt(solution.candidates == null ? -1 : solution.candidates.length);
+        if (solution.candidates != null) {
+            for (int position : solution.candidates) {
+                out.writeInt(position);
+            }
+        }
+    }
+
+    private static SavedSolution readSolution(DataInputStream in, int size) throws IOException {
+        int score = in.readInt();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = in.readInt();
+        }
+        long[] rotated = new long[(size + 63) >>> 6];
+        for (int i = 0; i < rotated.length; i++) {
+            rotated[i] = in.readLong();
+        }
+        int count = in.readInt();
+        int[] candidates = null;
+        if (count >= 0) {
+            candidates = new int[count];
+            for (int i = 0; i < count; i++) {
+                candidates[i] = in.readInt();
+            }
+        }
+        return new SavedSolution(score, order, rotated, candidates);
+    }
+}
@@ -0,0 +1,394 @@
+import java.util.concurrent.ForkJoinPool;
+
+public class SearchConfig {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The settings of a single search, which never change once built
+    private final SearchMethod method;
+    private final int kMax;
+    private final int lMax;
+    private final double tMax;
+    private final double alpha;
+    private final int seed;
+    private final boolean debug;
+    private final ForkJoinPool pool;
+    private final int cacheSize;
+    private final int maxCost;
+    private final SearchTelemetry telemetry;
+    private final boolean adaptive;
+    private final ElitePool elitePool;
+    private final int migrationInterval;
+    private final String checkpointFile;
+    private final double checkpointPeriod;
+    private final boolean resume;
+    private final SearchListener listener;
+    private final int candidates;
+
+    private SearchConfig(Builder builder){
+        method = builder.method;
+        kMax = builder.kMax;
+        lMax = builder.lMax;
+        tMax = builder.tMax;
+        alpha = builder.alpha;
+        seed = builder.seed;
+        debug = builder.debug;
+        pool = builder.pool;
+        cacheSize = builder.cacheSize;
+        maxCost = builder.maxCost;
+        telemetry = builder.telemetry;
+        adaptive = builder.adaptive;
+        elitePool = builder.elitePool;
+        migrationInterval = builder.migrationInterval;
+        checkpointFile = builder.checkpointFile;
+        checkpointPeriod = builder.checkpointPeriod;
+        resume = builder.resume;
+        listener = builder.listener;
+        candidates = builder.candidates;
+    }
+
+    public SearchMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * @param instance the instance being searched
+     * @return the max neighbourhoods to test, by default the number of shapes times the number of different changes,
+     *         or the number of sampled move sizes times the number of different changes if the neighbourhoods are bounded
+     */
+    public int getKMax(PackingInstance instance) {
+        if (kMax != -1) {
+            return kMax;
+        }
+        return candidates > 0 ? CandidateNeighbourhoods.levels(instance.size()) * 3 : instance.size() * 3;
+    }
+
+    /**
+     * @param instance the instance being searched
+     * @return the local max neighbourhoods to test in the VND, by default a tenth of the number of shapes,
+     *         or the number of sampled move sizes if the neighbourhoods are bounded
+     */
+    public int getLMax(PackingInstance instance) {
+        if (lMax != -1) {
+            return lMax;
+        }
+        return candidates > 0 ? CandidateNeighbourhoods.levels(instance.size()) : instance.size() / 10;
+    }
+
+    /**
+     * @return the max amount of time to search for in seconds
+     */
+    public double getTMax() {
+        return tMax;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public boolean isDebug() {
+        return debug;
+    }
+
+    /**
+     * @return the pool to search neighbourhoods with, or null to search them one at a time
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return the most scores to keep in the cache of each search, 0 if no scores are cached
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * @return the amount of solutions to search before stopping, or -1 to search until tMax
+     */
+    public int getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * @return the counters of the search, or null to not count
+     */
+    public SearchTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * @return whether RVNS, BVNS and SVNS choose each k from how well it has worked instead of in order
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @return the best solutions shared with the other islands of a search, or null if the search is on its own
+     */
+    public ElitePool getElitePool() {
+        return elitePool;
+    }
+
+    /**
+     * @return the amount of neighbourhood changes an island makes between each exchange with the elite pool
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * @return the start of the name of the checkpoint file of each search, or null to not save checkpoints
+     */
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * @return the seconds between each checkpoint
+     */
+    public double getCheckpointPeriod() {
+        return checkpointPeriod;
+    }
+
+    /**
+     * @return whether a search carries on from its checkpoint file if there is one
+     */
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * @return told about each new best solution of the search, or null if no one is listening
+     */
+    public SearchListener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return the amount of positions each neighbourhood tries, or 0 to try every position
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return a builder starting from the settings of this config
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.method = method;
+        builder.kMax = kMax;
+        builder.lMax = lMax;
+        builder.tMax = tMax;
+        builder.alpha = alpha;
+        builder.seed = seed;
+        builder.debug = debug;
+        builder.pool = pool;
+        builder.cacheSize = cacheSize;
+        builder.maxCost = maxCost;
+        builder.telemetry = telemetry;
+        builder.adaptive = adaptive;
+        builder.elitePool = elitePool;
+        builder.migrationInterval = migrationInterval;
+        builder.checkpointFile = checkpointFile;
+        builder.checkpointPeriod = checkpointPeriod;
+        builder.resume = resume;
+        builder.listener = listener;
+        builder.candidates = candidates;
+        return builder;
+    }
+
+    public static class Builder {
+
+        // The default values that are used if they are not set
+        private SearchMethod method = SearchMethod.VND;
+        private int kMax = -1;
+        private int lMax = -1;
+        private double tMax = 1;
+        private double alpha = 0.01;
+        private int seed = 4563;
+        private boolean debug = false;
+        private ForkJoinPool pool = null;
+        private int cacheSize = 65536;
+        private int maxCost = -1;
+        private SearchTelemetry telemetry = null;
+        private boolean adaptive = false;
+        private ElitePool elitePool = null;
+        private int migrationInterval = 100;
+        private String checkpointFile = null;
+        private double checkpointPeriod = 60;
+        private boolean resume = false;
+        private SearchListener listener = null;
+        private int candidates = 0;
+
+        public Builder method(SearchMethod method) {
+            this.method = method;
+            return this;
+        }
+
+        /**
+         * @param kMax the max neighbourhoods to test, or -1 to work it out from the number of shapes
+         * @return this builder
+         */
+        public Builder kMax(int kMax) {
+            this.kMax = kMax;
+            return this;
+        }
+
+        /**
+         * @param lMax the local max neighbourhoods to test in the VND, or -1 to work it out from the number of shapes
+         * @return this builder
+         */
+        public Builder lMax(int lMax) {
+            this.lMax = lMax;
+            return this;
+        }
+
+        /**
+         * @param tMax the max amount of time to search for in seconds
+         * @return this builder
+         */
+        public Builder tMax(double tMax) {
+            this.tMax = tMax;
+            return this;
+        }
+
+        public Builder alpha(double alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        public Builder seed(int seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder debug(boolean debug) {
+            this.debug = debug;
+            return this;
+        }
+
+        /**
+         * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+         * @return this builder
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * @param cacheSize the most scores to keep in the cache of each search, or 0 to fit every solution searched
+         * @return this builder
+         */
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * @param maxCost the amount of solutions to search before stopping, or -1 to search until tMax
+         * @return this builder
+         */
+        public Builder maxCost(int maxCost) {
+            this.maxCost = maxCost;
+            return this;
+        }
+
+        /**
+         * @param telemetry the counters of the search, which can be shared by many searches, or null to not count
+         * @return this builder
+         */
+        public Builder telemetry(SearchTelemetry telemetry) {
+            this.telemetry = telemetry;
+            return this;
+        }
+
+        /**
+         * @param adaptive whether RVNS, BVNS and SVNS choose each k from how well it has worked instead of in order
+         * @return this builder
+         */
+        public Builder adaptive(boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        /**
+         * @param elitePool the best solutions shared with the other islands of a search, or null if the search is on its own
+         * @return this builder
+         */
+        public Builder elitePool(ElitePool elitePool) {
+            this.elitePool = elitePool;
+            return this;
+        }
+
+        /**
+         * @param migrationInterval the amount of neighbourhood changes an island makes between each exchange with the elite pool
+         * @return this builder
+         */
+        public Builder migrationInterval(int migrationInterval) {
+            this.migrationInterval = migrationInterval;
+            return this;
+        }
+
+        /**
+         * @param checkpointFile the start of the name of the checkpoint file of each search, which is followed by
+         *                       the method and seed of the search, or null to not save checkpoints
+         * @return this builder
+         */
+        public Builder checkpointFile(String checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        /**
+         * @param checkpointPeriod the seconds between each checkpoint
+         * @return this builder
+         */
+        public Builder checkpointPeriod(double checkpointPeriod) {
+            this.checkpointPeriod = checkpointPeriod;
+            return this;
+        }
+
+        /**
+         * @param resume whether a search carries on from its checkpoint file if there is one
+         * @return this builder
+         */
+        public Builder resume(boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        /**
+         * @param listener told about each new best solution of the search, which can be shared by many searches,
+         *                 or null if no one is listening
+         * @return this builder
+         */
+        public Builder listener(SearchListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * @param candidates the amount of positions each neighbourhood tries, picked from where the shapes reach highest
+         *                   and leave the most space, with move sizes spaced out so there are only log n of them,
+         *                   or 0 to try every position with every move size
+         * @return this builder
+         */
+        public Builder candidates(int candidates) {
+            this.candidates = candidates;
+            return this;
+        }
+
+        public SearchConfig build() {
+            return new SearchConfig(this);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SearchEngine {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The engine keeps no state between searches so many searches can be run on it at the same time
+
+    /**
+     * Searches for the best way to fit the shapes of an instance
+     * @param instance the shapes and sheet width
+     * @param config the settings of the search
+     * @return the best solution found with the cost and time taken
+     */
+    public SearchResult search(PackingInstance instance, SearchConfig config){
+        return search(instance, config, new SearchRandom(config.getSeed()));
+    }
+
+    /**
+     * Searches for the best way to fit the shapes of an instance with a given stream of random values
+     * @param instance the shapes and sheet width
+     * @param config the settings of the search
+     * @param random the random values of the search, unless it resumes from a checkpoint with its own
+     * @return the best solution found with the cost and time taken
+     */
+    private SearchResult search(PackingInstance instance, SearchConfig config, SearchRandom random){
+        //start timing program
+        long initialTime = System.nanoTime();
+
+        // Each search keeps its own cache as the cache is not shared between threads
+        EvaluationCache cache = config.getCacheSize() > 0 ? new EvaluationCache(config.getCacheSize()) : null;
+        SearchRun run = new SearchRun(config.isDebug(), config.getElitePool(), config.getMigrationInterval());
+
+        // Carry on from the checkpoint of this search if asked to and there is one
+        Path checkpointFile = config.getCheckpointFile() == null ? null
+                : Paths.get(config.getCheckpointFile() + "." + config.getMethod() + "." + config.getSeed());
+        SearchCheckpoint checkpoint = null;
+        if (checkpointFile != null && config.isResume() && Files.exists(checkpointFile)) {
+            try {
+                checkpoint = SearchCheckpoint.read(checkpointFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not resume from " + checkpointFile, e);
+            }
+            checkpoint.checkMatches(config, instance);
+        }
+
+        Solution x;
+        if (checkpoint == null) {
+            // Create initial solution with order to add shapes, the shapes, the options to fit, and the box width
+            x = new Solution(instance, random, config.getPool(), cache, config.getTelemetry(), config.getCandidates());
+            if (config.isDebug()) {
+                System.out.println("First fit used an area of " + x.getScore());
+            }
+        } else {
+            random = new SearchRandom(checkpoint.random);
+            x = Solution.restore(instance, checkpoint.current, random, config.getPool(), cache, config.getTelemetry(),
+                    config.getCandidates());
+            // Count the time taken before the search was stopped
+            initialTime -= checkpoint.elapsedTime;
+            if (checkpoint.finished) {
+                return new SearchResult(config.getMethod(), config.getSeed(), x, checkpoint.cost, checkpoint.elapsedTime, 0, 0,
+                        instance.getLowerBound());
+            }
+            Solution best = checkpoint.best == null ? null
+                    : Solution.restore(instance, checkpoint.best, random, config.getPool(), cache, config.getTelemetry(),
+                            config.getCandidates());
+            run.resumeFrom(checkpoint, best);
+            if (config.isDebug()) {
+                System.out.println("Resumed " + config.getMethod() + " with an area of " + x.getScore() + " after searching "
+                        + checkpoint.cost + " solutions");
+            }
+        }
+        if (checkpointFile != null) {
+            run.setCheckpointWriter(new CheckpointWriter(checkpointFile, config.getCheckpointPeriod(), initialTime, config, instance));
+        }
+
+        run.setListener(config.getListener(), config.getSeed(), initialTime);
+
+        // Convert tMax from seconds to nanoseconds, less the time taken before the search was stopped
+        long elapsedBefore = checkpoint == null ? 0 : checkpoint.elapsedTime;
+        x = run.search(config.getMethod(), x, config.getKMax(instance), config.getTMax() * 1E9 - elapsedBefore,
+                config.getLMax(instance), config.getAlpha(), config.getMaxCost(), config.isAdaptive(), instance.getLowerBound());
+
+        //finish timing program
+        long finalTime = System.nanoTime();
+        long hits = cache == null ? 0 : cache.getHits();
+        long misses = cache == null ? 0 : cache.getMisses();
+        return new SearchResult(config.getMethod(), config.getSeed(), x, run.getCost(), finalTime - initialTime, hits, misses,
+                instance.getLowerBound());
+    }
+
+    /**
+     * Searches with many islands at the same time, each running its own method and settings on its own thread.
+     * Every migration interval each island offers its best solution to a shared elite pool
+     * and moves to the best solution in the pool if it is better.
+     * @param instance the shapes and sheet width
+     * @param islands the settings of each island
+     * @return the best solution found by any island, with the cost of every island added up and the time taken by all of them
+     */
+    public SearchResult searchIslands(PackingInstance instance, List<SearchConfig> islands){
+        if (islands.isEmpty()) {
+            throw new IllegalArgumentException("A search needs at least one island");
+        }
+        long initialTime = System.nanoTime();
+        ElitePool elitePool = new ElitePool(islands.size());
+        // Each island takes its own part of one stream of random values, so the islands never share values
+        // and give the same results each time they are run from the same seed
+        SearchRandom random = new SearchRandom(islands.get(0).getSeed());
+        // Every island needs its own thread as they exchange solutions while they search
+        ExecutorService threads = Executors.newFixedThreadPool(islands.size());
+        try {
+            List<Future<SearchResult>> results = new ArrayList<>();
+            for (SearchConfig island : islands) {
+                SearchConfig islandConfig = island.toBuilder().elitePool(elitePool).build();
+                SearchRandom islandRandom = random.split();
+                results.add(threads.submit(() -> search(instance, islandConfig, islandRandom)));
+            }
+
+            SearchResult best = null;
+            int cost = 0;
+            long hits = 0, misses = 0;
+            for (Future<SearchResult> future : results) {
+                SearchResult result = future.get();
+                cost += result.getCost();
+                hits += result.getCacheHits();
+                misses += result.getCacheMisses();
+                // Ties go to the first island
+                if (best == null || result.getScore() < best.getScore()) {
+                    best = result;
+                }
+            }
+            if (islands.get(0).isDebug()) {
+                System.out.println("Islands moved to a solution from the elite pool " + elitePool.getMigrations() + " times");
+            }
+            return new SearchResult(best.getMethod(), best.getSeed(), best.getSolution(), cost, System.nanoTime() - initialTime,
+                    hits, misses, instance.getLowerBound());
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("An island of the search failed", e);
+        } finally {
+            threads.shutdown();
+        }
+    }
+}
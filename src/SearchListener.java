@@ -0,0 +1,33 @@
+public interface SearchListener {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Told about each new best solution of a search as soon as it is found, on the thread running the search.
+    // Many searches can share a listener so it must be safe to call from many threads, and it should return quickly.
+
+    /**
+     * Called when a search finds a solution better than any it has found before, including its first fit
+     * @param progress the new best solution and the state of the search when it was found
+     */
+    void improved(SearchProgress progress);
+
+    /**
+     * Combine listeners so each is told about every improvement, in the order given
+     * @param listeners the listeners, any of which can be null
+     * @return a listener telling all of them, or null if there are none
+     */
+    static SearchListener all(SearchListener... listeners){
+        SearchListener combined = null;
+        for (SearchListener listener : listeners) {
+            if (listener == null) {
+                continue;
+            }
+            SearchListener before = combined;
+            combined = before == null ? listener : progress -> {
+                before.improved(progress);
+                listener.improved(progress);
+            };
+        }
+        return combined;
+    }
+}
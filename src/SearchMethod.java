@@ -0,0 +1,10 @@
+public enum SearchMethod {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    VND,
+    RVNS,
+    BVNS,
+    GVNS,
+    SVNS
+}
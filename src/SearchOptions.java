@@ -0,0 +1,239 @@
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchOptions {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The options given on the command line, shared by a single search and a batch of searches.
+    // The default values are used if arguments are not given
+    int kMax = -1;
+    int lMax = -1;
+    double tMax = 1;
+    double alpha = 0.01;
+    int seed = 4563;
+    boolean limitToTen = false;
+    boolean debug = false;
+    int threads = 1;
+    int runThreads = 1;
+    int cacheSize = 65536;
+    int maxCost = -1;
+    double metricsPeriod = -1;
+    boolean adaptive = false;
+    SearchMethod method = null;
+    boolean show = false;
+    String svgFile = null;
+    String pngFile = null;
+    // The islands to search with at the same time, as a count or a list of methods with their settings, or null for one search
+    String islands = null;
+    int migrationInterval = 100;
+    String checkpointFile = null;
+    double checkpointPeriod = 60;
+    boolean resume = false;
+    String traceFile = null;
+    int candidates = 0;
+    // Arguments that are not options, in the order they were given
+    final List<String> others = new ArrayList<>();
+
+    /**
+     * Reads the options from the command line
+     * @param args the arguments
+     * @param start the index of the first argument that can be an option
+     * @return the options, with every argument that is not an option kept in others
+     */
+    static SearchOptions parse(String[] args, int start){
+        SearchOptions options = new SearchOptions();
+        // Check for matching options in the arguments
+        for (int i = start; i < args.length; i++) {
+            boolean hasValue = i + 1 < args.length;
+            if (args[i].equals("limit")) {
+                options.limitToTen = true;
+            }
+            else if (args[i].equals("-t") && hasValue){
+                try {
+                    options.tMax = Double.parseDouble(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set the time limit of search algorithims add the argument '-t' followed by the number of seconds in the next argument");
+                }
+            }
+            else if (args[i].equals("-S") && hasValue){
+                try {
+                    options.seed = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set the random seed for random move add the argument '-S' followed by the seed number in the next argument");
+                }
+            }
+            else if (args[i].equals("-a") && hasValue){
+                try {
+                    options.alpha = Double.parseDouble(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set the alpha value for SVNS add the argument '-a' followed by the alpha number in the next argument");
+                }
+            }
+            else if (args[i].equals("-k") && hasValue) {
+                try {
+                    options.kMax = Integer.parseInt(args[++i]);
+                } catch (Exception e) {
+                    System.out.println("To set the mad k value add the argument '-k' followed by the max k number in the next argument");
+                }
+            }
+            else if (args[i].equals("-l") && hasValue){
+                try {
+                    options.lMax = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set the local max k for GVNS add the argument '-l' followed by the max local k number in the next argument");
+                }
+            } else if (args[i].equals("-p") && hasValue){
+                try {
+                    options.threads = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To search each neighbourhood in parallel add the argument '-p' followed by the number of threads in the next argument");
+                }
+            } else if (args[i].equals("-w") && hasValue){
+                try {
+                    options.runThreads = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To search the runs of each method at the same time add the argument '-w' followed by the number of threads in the next argument");
+                }
+            } else if (args[i].equals("-c") && hasValue){
+                try {
+                    options.cacheSize = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set how many scores are cached add the argument '-c' followed by the number of scores in the next argument");
+                }
+            } else if (args[i].equals("-e") && hasValue){
+                try {
+                    options.maxCost = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To stop each run after a number of solutions add the argument '-e' followed by the number of solutions in the next argument");
+                }
+            } else if (args[i].equals("-m") && hasValue){
+                try {
+                    options.metricsPeriod = Double.parseDouble(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To count where the search spends its time add the argument '-m' followed by the seconds between each print of the counters in the next argument");
+                }
+            } else if (args[i].equals("-i") && hasValue){
+                String spec = args[++i];
+                try {
+                    options.islands = spec;
+                    options.islandConfigs(new SearchConfig.Builder().build());
+                } catch(Exception e){
+                    options.islands = null;
+                    System.out.println("To search with islands add the argument '-i' followed by the number of islands, or by a list of methods "
+                            + "such as BVNS,SVNS:a=0.05,GVNS:k=30:l=5 with the settings of each island, in the next argument");
+                }
+            } else if (args[i].equals("-g") && hasValue){
+                try {
+                    options.migrationInterval = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set how often islands exchange solutions add the argument '-g' followed by the number of neighbourhood changes in the next argument");
+                }
+            } else if (args[i].equals("-checkpoint") && hasValue){
+                options.checkpointFile = args[++i];
+            } else if (args[i].equals("-every") && hasValue){
+                try {
+                    options.checkpointPeriod = Double.parseDouble(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To set how often checkpoints are saved add the argument '-every' followed by the number of seconds in the next argument");
+                }
+            } else if (args[i].equals("-candidates") && hasValue){
+                try {
+                    options.candidates = Integer.parseInt(args[++i]);
+                } catch(Exception e){
+                    System.out.println("To only try some positions in each neighbourhood of a long list add the argument '-candidates' followed by the number of positions in the next argument");
+                }
+            } else if (args[i].equals("-trace") && hasValue){
+                options.traceFile = args[++i];
+            } else if (args[i].equals("-svg") && hasValue){
+                options.svgFile = args[++i];
+            } else if (args[i].equals("-png") && hasValue){
+                options.pngFile = args[++i];
+            } else if (args[i].equals("show")){
+                options.show = true;
+            } else if (args[i].equals("debug")){
+                options.debug = true;
+            } else if (args[i].equals("adaptive")){
+                options.adaptive = true;
+            } else if (args[i].equals("resume")){
+                options.resume = true;
+            } else {
+                boolean isMethod = false;
+                for (SearchMethod m: SearchMethod.values()) {
+                    if(args[i].equals(m.toString())){
+                        options.method = m;
+                        isMethod = true;
+                    }
+                }
+                if (!isMethod) {
+                    options.others.add(args[i]);
+                }
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @return a builder with the settings of these options, without a pool or telemetry
+     */
+    SearchConfig.Builder toConfigBuilder(){
+        return new SearchConfig.Builder()
+                .kMax(kMax)
+                .lMax(lMax)
+                .tMax(tMax)
+                .alpha(alpha)
+                .seed(seed)
+                .debug(debug)
+                .cacheSize(cacheSize)
+                .maxCost(maxCost)
+                .adaptive(adaptive)
+                .migrationInterval(migrationInterval)
+                .checkpointFile(checkpointFile)
+                .checkpointPeriod(checkpointPeriod)
+                .resume(resume)
+                .candidates(candidates);
+    }
+
+    /**
+     * Creates the settings of each island. Given a count, the islands take turns at RVNS, BVNS, GVNS and SVNS,
+     * or all use the method given. Given a list, each entry is a method followed by any of :k=, :l= and :a=
+     * to set its kMax, lMax and alpha. Every island is given its own seed.
+     * @param base the settings every island starts from
+     * @return the settings of each island
+     * @throws IllegalArgumentException if the islands are not a count or a list of methods with settings
+     */
+    List<SearchConfig> islandConfigs(SearchConfig base){
+        List<SearchConfig> configs = new ArrayList<>();
+        if (islands.chars().allMatch(Character::isDigit)) {
+            int count = Integer.parseInt(islands);
+            SearchMethod[] methods = method != null ? new SearchMethod[]{method}
+                    : new SearchMethod[]{SearchMethod.RVNS, SearchMethod.BVNS, SearchMethod.GVNS, SearchMethod.SVNS};
+            for (int island = 0; island < count; island++) {
+                configs.add(base.toBuilder().method(methods[island % methods.length]).seed(base.getSeed() + island).build());
+            }
+        } else {
+            String[] entries = islands.split(",");
+            for (int island = 0; island < entries.length; island++) {
+                String[] parts = entries[island].split(":");
+                SearchConfig.Builder builder = base.toBuilder().method(SearchMethod.valueOf(parts[0])).seed(base.getSeed() + island);
+                for (int p = 1; p < parts.length; p++) {
+                    String setting = parts[p];
+                    if (setting.startsWith("k=")) {
+                        builder.kMax(Integer.parseInt(setting.substring(2)));
+                    } else if (setting.startsWith("l=")) {
+                        builder.lMax(Integer.parseInt(setting.substring(2)));
+                    } else if (setting.startsWith("a=")) {
+                        builder.alpha(Double.parseDouble(setting.substring(2)));
+                    } else {
+                        throw new IllegalArgumentException("Unknown island setting " + setting);
+                    }
+                }
+                configs.add(builder.build());
+            }
+        }
+        if (configs.isEmpty()) {
+            throw new IllegalArgumentException("A search needs at least one island");
+        }
+        return configs;
+    }
+}
@@ -0,0 +1,71 @@
+public class SearchProgress {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // A new best solution of a search and the state of the search when it was found, which never changes once created.
+    // The solution is a copy with its own random values and no pool, cache or counters, so it can be drawn or searched
+    // from while the search carries on without changing it.
+    private final SearchMethod method;
+    private final int seed;
+    private final Solution solution;
+    private final int cost;
+    private final long elapsedTime;
+    private final int k;
+
+    /**
+     * @param method the searching method
+     * @param seed the random seed of the search
+     * @param solution the new best solution
+     * @param cost the amount of solutions searched when it was found
+     * @param elapsedTime how long the search had taken when it was found in nanoseconds
+     * @param k the neighbourhood it was found in, 0 for the first fit
+     */
+    public SearchProgress(SearchMethod method, int seed, Solution solution, int cost, long elapsedTime, int k){
+        this.method = method;
+        this.seed = seed;
+        this.solution = solution;
+        this.cost = cost;
+        this.elapsedTime = elapsedTime;
+        this.k = k;
+    }
+
+    public SearchMethod getMethod() {
+        return method;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return the height of the new best solution
+     */
+    public int getScore() {
+        return solution.getScore();
+    }
+
+    /**
+     * @return the amount of solutions searched when the solution was found
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @return how long the search had taken when the solution was found in nanoseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * @return the neighbourhood the solution was found in, 0 for the first fit
+     */
+    public int getK() {
+        return k;
+    }
+}
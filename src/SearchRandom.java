@@ -0,0 +1,138 @@
+public class SearchRandom {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The random values of one search trajectory, made by the xoroshiro128++ generator. One generator is made for each
+    // search and passed from each solution to its neighbours, so every shake carries on from where the last one stopped.
+    // Its state is two longs so it can be saved in a checkpoint, and split gives a stream that does not overlap the rest
+    // of this one, so searches run side by side from the same seed each get their own values in the same way every time.
+    private long s0;
+    private long s1;
+
+    /**
+     * Creates a generator whose values are decided by a seed
+     * @param seed the random seed
+     */
+    public SearchRandom(long seed){
+        // Spread the seed over both words so nearby seeds give unrelated streams
+        long x = seed;
+        s0 = mix(x += 0x9E3779B97F4A7C15L);
+        s1 = mix(x + 0x9E3779B97F4A7C15L);
+        // The all zero state never changes so it is avoided
+        if ((s0 | s1) == 0) {
+            s1 = 1;
+        }
+    }
+
+    /**
+     * Creates a generator from a state saved by getState
+     * @param state the two words of the state
+     */
+    public SearchRandom(long[] state){
+        s0 = state[0];
+        s1 = state[1];
+    }
+
+    /**
+     * @return the two words of the state, so the generator can be made again with the same values to come
+     */
+    public long[] getState(){
+        return new long[]{s0, s1};
+    }
+
+    /**
+     * Save the state into a slot of an array without making a new array, so it can be put back with restoreState
+     * @param states two longs for each slot
+     * @param slot the slot to save into
+     */
+    void saveState(long[] states, int slot){
+        states[2 * slot] = s0;
+        states[2 * slot + 1] = s1;
+    }
+
+    /**
+     * Put back a state saved by saveState, so the values that followed it are given again
+     * @param states two longs for each slot
+     * @param slot the slot to restore from
+     */
+    void restoreState(long[] states, int slot){
+        s0 = states[2 * slot];
+        s1 = states[2 * slot + 1];
+    }
+
+    /**
+     * @return the next 64 random bits
+     */
+    public long nextLong(){
+        long a = s0, b = s1;
+        long result = Long.rotateLeft(a + b, 17) + a;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+        s1 = Long.rotateLeft(b, 28);
+        return result;
+    }
+
+    /**
+     * @return true or false with equal chance
+     */
+    public boolean nextBoolean(){
+        return nextLong() < 0;
+    }
+
+    /**
+     * @param bound the number of values to pick from, greater than 0
+     * @return a value from 0 up to but not including bound, each with equal chance
+     */
+    public int nextInt(int bound){
+        if (bound <= 0) {
+            throw new IllegalArgumentException("The bound must be greater than 0 but was " + bound);
+        }
+        // Take the high 32 bits times the bound, and reject the few values that would make low results more likely
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * Hand the values this generator would give next to a new generator, and move this one 2^64 values ahead
+     * so the two streams never overlap
+     * @return the new generator
+     */
+    public SearchRandom split(){
+        SearchRandom split = new SearchRandom(new long[]{s0, s1});
+        jump();
+        return split;
+    }
+
+    /**
+     * Move the state ahead by 2^64 values
+     */
+    private void jump(){
+        final long[] jump = {0x2bd7a6a6e99c2ddcL, 0x0992ccaf6a6fca05L};
+        long t0 = 0, t1 = 0;
+        for (long word : jump) {
+            for (int bit = 0; bit < 64; bit++) {
+                if ((word & (1L << bit)) != 0) {
+                    t0 ^= s0;
+                    t1 ^= s1;
+                }
+                nextLong();
+            }
+        }
+        s0 = t0;
+        s1 = t1;
+    }
+
+    private static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,108 @@
+public class SearchResult {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    private final SearchMethod method;
+    private final int seed;
+    private final Solution solution;
+    private final int cost;
+    private final long elapsedTime;
+    private final long cacheHits;
+    private final long cacheMisses;
+    private final int lowerBound;
+
+    /**
+     * Creates the result of a single search
+     * @param method the searching method used
+     * @param seed the random seed used
+     * @param solution the best solution found
+     * @param cost the amount of solutions searched
+     * @param elapsedTime how long the search took in nanoseconds
+     * @param cacheHits the amount of solutions whose score was found in the cache
+     * @param cacheMisses the amount of solutions whose score was not found in the cache
+     * @param lowerBound the height that no solution can be lower than
+     */
+    public SearchResult(SearchMethod method, int seed, Solution solution, int cost, long elapsedTime, long cacheHits, long cacheMisses,
+                        int lowerBound){
+        this.method = method;
+        this.seed = seed;
+        this.solution = solution;
+        this.cost = cost;
+        this.elapsedTime = elapsedTime;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+        this.lowerBound = lowerBound;
+    }
+
+    public SearchMethod getMethod() {
+        return method;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    public Solution getSolution() {
+        return solution;
+    }
+
+    /**
+     * @return the height of the best solution found
+     */
+    public int getScore() {
+        return solution.getScore();
+    }
+
+    /**
+     * @return the height that no solution can be lower than
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * @return how far the score is above the lower bound as a percentage of the bound, so 2.5 means 2.5% above it,
+     * 0 if it is optimal
+     */
+    public double getGap() {
+        return gap(getScore(), lowerBound);
+    }
+
+    /**
+     * Find how far a score is above a lower bound, the optimality gap given by every output of a search
+     * @param score the height of a solution
+     * @param lowerBound the height that no solution can be lower than
+     * @return the gap as a percentage of the bound, 0 if the bound is 0
+     */
+    public static double gap(int score, int lowerBound) {
+        return lowerBound == 0 ? 0 : 100.0 * (score - lowerBound) / lowerBound;
+    }
+
+    /**
+     * @return the amount of solutions searched
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @return how long the search took in nanoseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * @return the amount of solutions whose score was found in the cache
+     */
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * @return the amount of solutions whose score was not found in the cache
+     */
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+}
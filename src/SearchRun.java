@@ -0,0 +1,463 @@
+public class SearchRun {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The state of a single run so that runs can search at the same time
+    private final boolean debug;
+    private int k;
+    private int cost;
+    private long deadline;  // Value of System.nanoTime() to stop at, or Solution.NO_DEADLINE
+    private int maxCost;    // Amount of solutions to stop after, or -1 to search until the deadline
+    private NeighbourhoodBandit bandit; // Chooses each k from past results, or null to search k in order
+    private int searchedK;  // The neighbourhood searched by the last step
+    private boolean moved;  // Whether the last step moved to the solution it found
+    private int steps;      // Steps taken in the current sweep
+    private int lowerBound; // Height that no solution can be lower than
+    private boolean optimal; // Whether a solution at the lower bound has been found
+    private final ElitePool elitePool; // Best solutions shared with other islands, or null if the run is on its own
+    private final int migrationInterval; // Neighbourhood changes between each exchange with the elite pool
+    private int changes;    // Neighbourhood changes made since the run started
+    private SearchMethod method;
+    private CheckpointWriter checkpointWriter; // Saves the state of the run once every period, or null to not save it
+    private boolean resumed;     // Whether the next step carries on from a checkpoint instead of starting a sweep
+    private Solution restoredBest; // The best solution of a resumed SVNS run if it is not the current solution
+    private SearchListener listener; // Told about each new best solution, or null if no one is listening
+    private int seed;
+    private long initialTime;    // Value of System.nanoTime() the search started at
+    private int incumbentScore;  // Score of the best solution told to the listener
+
+    /**
+     * Creates a run of a search method
+     * @param debug whether to print each new fit
+     */
+    public SearchRun(boolean debug){
+        this(debug, null, 1);
+    }
+
+    /**
+     * Creates a run of a search method that is one island of a search, exchanging its best solution with the others
+     * @param debug whether to print each new fit
+     * @param elitePool the best solutions shared with the other islands, or null if the run is on its own
+     * @param migrationInterval the amount of neighbourhood changes between each exchange with the elite pool
+     */
+    public SearchRun(boolean debug, ElitePool elitePool, int migrationInterval){
+        this.debug = debug;
+        this.elitePool = elitePool;
+        this.migrationInterval = Math.max(1, migrationInterval);
+    }
+
+    /**
+     * Gives the amount of solutions searched by the run
+     * @return the cost of the run
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @param checkpointWriter saves the state of the run once every period, or null to not save it
+     */
+    public void setCheckpointWriter(CheckpointWriter checkpointWriter) {
+        this.checkpointWriter = checkpointWriter;
+    }
+
+    /**
+     * @param listener told about each new best solution, or null if no one is listening
+     * @param seed the random seed of the search, to tell the listener
+     * @param initialTime the value of System.nanoTime() the search started at
+     */
+    public void setListener(SearchListener listener, int seed, long initialTime) {
+        this.listener = listener;
+        this.seed = seed;
+        this.initialTime = initialTime;
+    }
+
+    /**
+     * Carry on the next search from the step a checkpoint was saved at instead of from the start
+     * @param checkpoint the saved state of the run
+     * @param best the best solution of the run if it is not the current solution, or null
+     */
+    public void resumeFrom(SearchCheckpoint checkpoint, Solution best) {
+        cost = checkpoint.cost;
+        k = checkpoint.k;
+        steps = checkpoint.steps;
+        bandit = checkpoint.banditPlays == null ? null : new NeighbourhoodBandit(checkpoint.banditPlays, checkpoint.banditSuccesses);
+        restoredBest = best;
+        resumed = true;
+    }
+
+    /**
+     * Searches from an initial solution using a searching method
+     * @param method the searching method
+     * @param x the initial solution
+     * @param kMax the max neighbourhoods to test
+     * @param tMax the max amount of time to search for the best solution, not used by VND
+     * @param lMax the local max neighbourhoods to test in the VND
+     * @param alpha the multiplier to take a distant solution
+     * @param maxCost the amount of solutions to search before stopping, or -1 to only stop at tMax
+     * @param adaptive whether RVNS, BVNS and SVNS choose each k from how well it has worked instead of in order
+     * @param lowerBound the height that no solution can be lower than, the search stops once a solution reaches it
+     * @return the best solution found
+     */
+    public Solution search(SearchMethod method, Solution x, int kMax, double tMax, int lMax, double alpha, int maxCost,
+                           boolean adaptive, int lowerBound){
+        this.method = method;
+        this.maxCost = maxCost;
+        this.lowerBound = lowerBound;
+        if (!resumed) {
+            // Start cost at one as we have created the initial solution
+            cost = 1;
+            bandit = null;
+        }
+        incumbentScore = Integer.MAX_VALUE;
+        publish(restoredBest != null ? restoredBest : x, 0);
+        // There is nothing to search for if the first fit is already as low as possible
+        optimal = x.getScore() == lowerBound || (restoredBest != null && restoredBest.getScore() == lowerBound);
+        if (optimal) {
+            return restoredBest != null ? restoredBest : x;
+        }
+        // The order only ever reaches kMax - 1 before a sweep ends so the bandit chooses from the same neighbourhoods.
+        // VND and GVNS always search k in order so only RVNS, BVNS and SVNS have a bandit.
+        if (!adaptive || method == SearchMethod.VND || method == SearchMethod.GVNS) {
+            bandit = null;
+        } else if (bandit == null) {
+            bandit = new NeighbourhoodBandit(Math.max(1, kMax - 1));
+        }
+        // VND stops once no neighbourhood improves so only the cost or the lower bound can stop it early
+        if (method == SearchMethod.VND || tMax >= Long.MAX_VALUE / 2) {
+            deadline = Solution.NO_DEADLINE;
+        } else {
+            deadline = System.nanoTime() + (long) tMax;
+        }
+
+        if (method == SearchMethod.VND) {
+            // Variable Neighbourhood Descent
+            x = VND(x, kMax);
+        } else if (method == SearchMethod.RVNS) {
+            // Reduced Variable Neighbourhood Search
+            x = RVNS(x, kMax);
+        } else if (method == SearchMethod.BVNS) {
+            // Basic Variable Neighbourhood Search
+            x = BVNS(x, kMax);
+        } else if (method == SearchMethod.GVNS) {
+            // General Variable Neighbourhood Search
+            x = GVNS(x, lMax, kMax);
+        } else if (method == SearchMethod.SVNS) {
+            // Reduced Variable Neighbourhood Search
+            x = SVNS(x, kMax, alpha);
+        }
+        // Leave the final solution for islands that are still searching
+        if (elitePool != null) {
+            elitePool.offer(x);
+        }
+        // Mark the run as finished so resuming it only gives its result
+        if (checkpointWriter != null) {
+            checkpointWriter.saveNow(checkpointWriter.checkpoint(true, cost, k, steps, x, null, bandit));
+        }
+        return x;
+    }
+
+    /**
+     * Tell the listener about a solution if it is better than any told before
+     * @param x a solution the search has moved to
+     * @param k the neighbourhood it was found in
+     */
+    private void publish(Solution x, int k){
+        if (listener != null && x.getScore() < incumbentScore) {
+            incumbentScore = x.getScore();
+            // Hand over a copy sharing nothing with the search, so the listener can use it while the search carries on from x
+            listener.improved(new SearchProgress(method, seed, x.snapshot(), cost, System.nanoTime() - initialTime, k));
+        }
+    }
+
+    /**
+     * Save the state of the run at the start of a step if the checkpoint period has passed
+     * @param x the current solution
+     * @param xBest the best solution, the same as x for every method but SVNS
+     */
+    private void checkpoint(Solution x, Solution xBest){
+        if (checkpointWriter != null && checkpointWriter.isDue()) {
+            checkpointWriter.save(checkpointWriter.checkpoint(false, cost, k, steps, x, xBest == x ? null : xBest, bandit));
+        }
+    }
+
+    /**
+     * Check whether the run carries on from a checkpoint, which only happens for the first step after resuming
+     * @return whether the step to take was restored from a checkpoint
+     */
+    private boolean resumeStep(){
+        boolean wasResumed = resumed;
+        resumed = false;
+        return wasResumed;
+    }
+
+    /**
+     * Exchange solutions with the other islands once every migration interval of neighbourhood changes.
+     * The current solution is offered to the elite pool and replaced by the best in the pool if that is better,
+     * which starts the neighbourhoods again from k = 1 the same as a move.
+     * @param x the current solution
+     * @return the current solution, or a copy of the best solution in the pool if that is better
+     */
+    private Solution migrate(Solution x){
+        if (elitePool == null || ++changes % migrationInterval != 0) {
+            return x;
+        }
+        elitePool.offer(x);
+        Solution immigrant = elitePool.best();
+        if (immigrant != null && immigrant.getScore() < x.getScore()) {
+            // Search on from the immigrant with this island's own random values and cache
+            x = x.withOrderOf(immigrant);
+            elitePool.recordMigration();
+            publish(x, k);
+            if (debug) {
+                System.out.println("Migrated a fit with an area of " + x.getScore());
+            }
+            optimal = x.getScore() == lowerBound;
+            k = 1;
+        }
+        return x;
+    }
+
+    /**
+     * Checked between every step of a search and within each neighbourhood so runs stop close to their budget
+     * @return whether the lower bound has been reached, the deadline has passed or the cost has reached the max cost
+     */
+    private boolean isFinished(){
+        return optimal || (maxCost != -1 && cost >= maxCost) || Solution.pastDeadline(deadline);
+    }
+
+    /**
+     * Choose the first neighbourhood of a sweep
+     */
+    private void startSweep(){
+        // A resumed run is part way through the sweep it was saved in
+        if (resumeStep()) {
+            return;
+        }
+        steps = 0;
+        k = bandit == null ? 1 : bandit.select();
+    }
+
+    /**
+     * Choose the next neighbourhood after a step of a sweep. In order, k has already been set by the neighbourhood change.
+     * @param kMax the max neighbourhoods to test
+     * @return whether the sweep carries on
+     */
+    private boolean nextNeighbourhood(int kMax){
+        steps++;
+        if (bandit == null) {
+            return k < kMax && !isFinished();
+        }
+        bandit.update(searchedK, moved);
+        k = bandit.select();
+        // A sweep takes as many steps as a sweep in order that finds no improvement
+        return steps < bandit.getArms() && !isFinished();
+    }
+
+    /**
+     * This function either resets k to 1 and makes a move to a better current best solution ot increments k
+     * @param xBest the current best solution
+     * @param xNew the next solution to move to
+     * @return the best of the two solutions
+     */
+    private Solution NeighbourhoodChange(Solution xBest, Solution xNew){
+        searchedK = k;
+        moved = xNew.getScore() < xBest.getScore();
+        if(moved){
+            xBest = xNew;
+            if(debug){
+                System.out.println("New fit at k=" + k + " with an area of " + xBest.getScore());
+            }
+            publish(xBest, k);
+            // A score below the bound means shapes overlap, so only a score at the bound is optimal
+            optimal = xBest.getScore() == lowerBound;
+            k = 1;
+        }
+        else{
+            k++;
+        }
+        return xBest;
+    }
+
+    /**
+     * Variable Neighbourhood Descent
+     * Check all neighbourhoods and return best solution
+     *
+     * @param x the current  solution
+     * @param kMax teh max k neighbour to search up to
+     * @return best solution in neighbourhoods
+     */
+    private Solution VND(Solution x, int kMax){
+        if (!resumeStep()) {
+            k = 1;
+        }
+        do{
+            // Only a run of VND is saved as GVNS saves its own steps
+            if (method == SearchMethod.VND) {
+                checkpoint(x, x);
+            }
+            // Find the best neighbor in neighborhood k
+            Solution xNew = x.getBestInNeighborhood(k, deadline);
+            // Add to cost the amount of neighbours searched, the length unless the deadline passed
+            cost += x.getBestInNeighbourhoodCost();
+            // Change neighborhood
+            x = NeighbourhoodChange(x, xNew);
+        } while (k < kMax && !isFinished());
+        return x;
+    }
+
+    /**
+     * Reduced Variable Neighbourhood Search
+     * Repeatedly iterates over neighbourhoods, picking a single random solution from each neighbourhood, until the time or cost budget is used up
+     *
+     * @param x the current solution
+     * @param kMax the max neighbourhoods to test
+     * @return the best solution found
+     */
+    private Solution RVNS(Solution x, int kMax){
+        do{
+            startSweep();
+            do{
+                checkpoint(x, x);
+                // Add one to cost whenever we find a random neighbourhood
+                cost++;
+                Solution xShook = x.Shake(k);
+                x = NeighbourhoodChange(x, xShook);
+                x = migrate(x);
+            } while (nextNeighbourhood(kMax));
+            // Stop once the time or cost budget is used up
+        } while (!isFinished());
+        return x;
+    }
+
+    /**
+     * Basic Variable Neighbourhood Search
+     * @param x the current solution
+     * @param kMax the max neighbourhoods to test
+     * @return the best solution found
+     */
+    private Solution BVNS(Solution x, int kMax){
+        do{
+            startSweep();
+            do{
+                checkpoint(x, x);
+                // Add one to cost whenever we find a random neighbourhood
+                cost++;
+                Solution xShook = x.Shake(k);                   // Shaking
+                Solution xFirst = xShook.FirstImprovment(k, deadline);   // Local Search
+                // Add to cost whenever we find the neighbourhood with improvement
+                cost += xShook.getFirstImprovementCost();
+                x = NeighbourhoodChange(x, xFirst);            // Change neighborhood
+                x = migrate(x);
+            } while (nextNeighbourhood(kMax));
+            // Stop once the time or cost budget is used up
+        } while (!isFinished());
+        return x;
+    }
+
+    /**
+     * General Variable Neighbourhood Search
+     * @param x the current solution
+     * @param lMax the local max neighbourhoods to test in the VND
+     * @param kMax the max neighbourhoods to test
+     * @return the best solution found
+     */
+    private Solution GVNS(Solution x, int lMax, int kMax){
+        do{
+            if (!resumeStep()) {
+                k = 1;
+            }
+            do{
+                checkpoint(x, x);
+                // Add one to cost whenever we find a random neighbourhood
+                cost++;
+                Solution xShook = x.Shake(k);      // Shaking
+                int storedK = k;
+                Solution xVND = VND(x, lMax);      // VND
+                k = storedK;
+                x = NeighbourhoodChange(x, xVND);  // Change neighborhood
+                x = migrate(x);
+            } while (k < kMax && !isFinished());
+            // Stop once the time or cost budget is used up
+        } while (!isFinished());
+        return x;
+    }
+
+    /**
+     * Skewed Variable Neighbourhood Search
+     *
+     * @param xBest the current best solution
+     * @param xNew the next solution to move to
+     * @param alpha the multiplier to take a distant solution
+     * @return the best of the two solutions
+     */
+    private Solution NeighbourhoodChangeS(Solution xBest, Solution xNew, double alpha){
+        int a = (int)(alpha * p(xBest, xNew));
+        searchedK = k;
+        moved = xNew.getScore() - a < xBest.getScore();
+        if(moved){
+            xBest = xNew;
+            if(debug) {
+                System.out.println("Skewed fit at k=" + k + " with an area of " + xBest.getScore());
+            }
+            // Only a skewed move below the best score so far is told to the listener
+            publish(xBest, k);
+            optimal = xBest.getScore() == lowerBound;
+            k = 1;
+        }
+        else{
+            k++;
+        }
+        return xBest;
+    }
+
+    /**
+     * Measure the distance between solutions.
+     * @param x1 a solution
+     * @param x2 a different solution
+     * @return the best solution
+     */
+    private static int p(Solution x1, Solution x2){
+        // Find the distance between the two solutions
+        int distance = 0;
+        // Increase the distance for each different shape
+        for (int i = 0; i < x1.size(); i++) {
+            if(x1.getWidthAt(i) != x2.getWidthAt(i) || x1.getHeightAt(i) != x2.getHeightAt(i)){
+                distance++;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Skewed Variable Neighbourhood Search
+     * @param x the current solution
+     * @param kMax the max neighbourhoods to test
+     * @param alpha the multiplier to take a distant solution
+     * @return the best solution
+     */
+    private Solution SVNS(Solution x, int kMax, double alpha){
+        Solution xBest = restoredBest != null ? restoredBest : x;
+        restoredBest = null;
+        do{
+            startSweep();
+            do{
+                checkpoint(x, xBest);
+                // Add one to cost whenever we find a random neighbourhood
+                cost++;
+                Solution xShook = x.Shake(k);
+                Solution xFirst = xShook.FirstImprovment(k, deadline);
+                // Add to cost whenever we find the neighbourhood with improvement
+                cost += xShook.getFirstImprovementCost();
+                x = NeighbourhoodChangeS(x, xFirst, alpha);
+                x = migrate(x);
+                if(x.getScore() < xBest.getScore()){
+                    xBest = x;
+                }
+            } while (nextNeighbourhood(kMax));
+            x = xBest;
+            // Stop once the time or cost budget is used up
+        } while (!isFinished());
+        return x;
+    }
+}
@@ -0,0 +1,214 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class SearchTelemetry implements SearchTelemetryMXBean {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Counters of where a search spends its time, shared by every run and thread that is given them.
+    // LongAdder is used so threads evaluating neighbours at the same time do not wait on each other.
+    public static final int ROTATE = 0;
+    public static final int MOVE_BY_K = 1;
+    public static final int MOVE_K_SHAPES = 2;
+    private static final String[] MOVE_NAMES = {"rotate", "moveShapeByK", "moveKShapes"};
+    private static final AtomicInteger REGISTERED = new AtomicInteger(); // Counters registered in this JVM so far
+
+    private final long startTime = System.nanoTime();
+    private ObjectName objectName; // The name the counters are registered under, or null if they are not
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder fitShapeTime = new LongAdder();
+    private final LongAdder generationTime = new LongAdder();
+    private final LongAdder[] moveNeighbours = newAdders(MOVE_NAMES.length);
+    private final LongAdder[] moveImprovements = newAdders(MOVE_NAMES.length);
+    private final LongAdder[] moveWasted = newAdders(MOVE_NAMES.length);
+    private final Map<Integer, LongAdder> kNeighbours = new ConcurrentHashMap<>();
+    private final Map<Integer, LongAdder> kImprovements = new ConcurrentHashMap<>();
+
+    /**
+     * Count a run of fitShape
+     * @param nanos how long fitShape took
+     */
+    public void recordEvaluation(long nanos){
+        evaluations.increment();
+        fitShapeTime.add(nanos);
+    }
+
+    /**
+     * Count a neighbour being created
+     * @param moveType the move that created the neighbour
+     * @param k the neighbourhood of the neighbour
+     * @param nanos how long the neighbour took to create
+     * @param wasted whether the neighbour is the same as the solution it came from
+     */
+    public void recordNeighbour(int moveType, int k, long nanos, boolean wasted){
+        generationTime.add(nanos);
+        moveNeighbours[moveType].increment();
+        kNeighbours.computeIfAbsent(k, key -> new LongAdder()).increment();
+        if (wasted) {
+            moveWasted[moveType].increment();
+        }
+    }
+
+    /**
+     * Count a neighbour that scored better than the solution it came from
+     * @param moveType the move that created the neighbour
+     * @param k the neighbourhood of the neighbour
+     */
+    public void recordImprovement(int moveType, int k){
+        moveImprovements[moveType].increment();
+        kImprovements.computeIfAbsent(k, key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public String[] getMoveTypes() {
+        return MOVE_NAMES.clone();
+    }
+
+    @Override
+    public long[] getMoveNeighbours() {
+        return sums(moveNeighbours);
+    }
+
+    @Override
+    public long[] getMoveImprovements() {
+        return sums(moveImprovements);
+    }
+
+    @Override
+    public long[] getMoveWasted() {
+        return sums(moveWasted);
+    }
+
+    @Override
+    public Map<Integer, Long> getNeighboursByK() {
+        return sums(kNeighbours);
+    }
+
+    @Override
+    public Map<Integer, Long> getImprovementsByK() {
+        return sums(kImprovements);
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations.sum();
+    }
+
+    @Override
+    public double getEvaluationsPerSecond() {
+        return evaluations.sum() / ((System.nanoTime() - startTime) / 1E9);
+    }
+
+    @Override
+    public double getFitShapeSeconds() {
+        return fitShapeTime.sum() / 1E9;
+    }
+
+    @Override
+    public double getGenerationSeconds() {
+        return generationTime.sum() / 1E9;
+    }
+
+    /**
+     * Show the counters through the platform MBean server until they are unregistered.
+     * Each registration is given its own id so many searches in the same JVM can show their counters at once.
+     * @param name the name to register the counters under
+     * @return the full name the counters were registered under
+     * @throws JMException if the counters could not be registered
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName registered = new ObjectName("vns:type=SearchTelemetry,name=" + name + ",id=" + REGISTERED.incrementAndGet());
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, registered);
+        objectName = registered;
+        return registered;
+    }
+
+    /**
+     * Stop showing the counters through the platform MBean server, if they were registered
+     * @throws JMException if the counters could not be unregistered
+     */
+    public void unregister() throws JMException {
+        if (objectName != null) {
+            ObjectName registered = objectName;
+            objectName = null;
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+        }
+    }
+
+    /**
+     * Print the counters on a daemon thread at a fixed rate until the returned scheduler is shut down
+     * @param seconds the time between each print
+     * @param out where to print the counters
+     * @return the scheduler printing the counters
+     */
+    public ScheduledExecutorService dumpEvery(double seconds, PrintStream out){
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "telemetry-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, (long) (seconds * 1E9));
+        scheduler.scheduleAtFixedRate(() -> print(out), period, period, TimeUnit.NANOSECONDS);
+        return scheduler;
+    }
+
+    /**
+     * Print every counter
+     * @param out where to print the counters
+     */
+    public void print(PrintStream out){
+        StringBuilder sb = new StringBuilder();
+        sb.append("Evaluations ").append(getEvaluations())
+                .append(" (").append(String.format("%.1f", getEvaluationsPerSecond())).append("/s)")
+                .append(", fitShape ").append(String.format("%.3f", getFitShapeSeconds())).append(" secs")
+                .append(", neighbour generation ").append(String.format("%.3f", getGenerationSeconds())).append(" secs")
+                .append(System.lineSeparator());
+        for (int m = 0; m < MOVE_NAMES.length; m++) {
+            sb.append(MOVE_NAMES[m]).append(": neighbours ").append(moveNeighbours[m].sum())
+                    .append(", improvements ").append(moveImprovements[m].sum())
+                    .append(", wasted ").append(moveWasted[m].sum())
+                    .append(System.lineSeparator());
+        }
+        // Neighbourhoods are listed as k=neighbours/improvements
+        sb.append("By k:");
+        Map<Integer, Long> improvementsByK = getImprovementsByK();
+        for (Map.Entry<Integer, Long> entry : getNeighboursByK().entrySet()) {
+            sb.append(' ').append(entry.getKey()).append('=').append(entry.getValue())
+                    .append('/').append(improvementsByK.getOrDefault(entry.getKey(), 0L));
+        }
+        out.println(sb);
+    }
+
+    private static LongAdder[] newAdders(int length){
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders){
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    private static Map<Integer, Long> sums(Map<Integer, LongAdder> adders){
+        // Sorted by k so the neighbourhoods are listed in order
+        Map<Integer, Long> sums = new TreeMap<>();
+        adders.forEach((k, adder) -> sums.put(k, adder.sum()));
+        return sums;
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.Map;
+
+public interface SearchTelemetryMXBean {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The counters of SearchTelemetry that are shown through JMX
+
+    /**
+     * @return the names of the move types, in the same order as the move counters
+     */
+    String[] getMoveTypes();
+
+    /**
+     * @return the amount of neighbours created by each move type
+     */
+    long[] getMoveNeighbours();
+
+    /**
+     * @return the amount of neighbours of each move type that scored better than the solution they came from
+     */
+    long[] getMoveImprovements();
+
+    /**
+     * @return the amount of neighbours of each move type that were the same as the solution they came from
+     */
+    long[] getMoveWasted();
+
+    /**
+     * @return the amount of neighbours created in each neighbourhood k
+     */
+    Map<Integer, Long> getNeighboursByK();
+
+    /**
+     * @return the amount of neighbours in each neighbourhood k that scored better than the solution they came from
+     */
+    Map<Integer, Long> getImprovementsByK();
+
+    /**
+     * @return the amount of times fitShape was run
+     */
+    long getEvaluations();
+
+    /**
+     * @return the amount of times fitShape was run per second since the counters started
+     */
+    double getEvaluationsPerSecond();
+
+    /**
+     * @return the time spent in fitShape in seconds, added up over every thread
+     */
+    double getFitShapeSeconds();
+
+    /**
+     * @return the time spent creating neighbours in seconds, added up over every thread
+     */
+    double getGenerationSeconds();
+}
@@ -0,0 +1,236 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ShapeListReader {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Reads every instance of a sheet of shape lists in one pass over the bytes of the file.
+    // Each instance takes four columns: the shape number, width, height and an empty column. The header rows
+    // hold a label in the width column and its value in the height column, and end at the "no,width,height" row.
+    // Cells are found by scanning for commas and line ends, and numbers are parsed straight from the bytes,
+    // so no line or cell strings are created. Quoted cells are not supported.
+    private static final int COLUMNS = 4;
+    private static final byte[] NAME = label("name:");
+    private static final byte[] SIZE = label("size:");
+    private static final byte[] ITEM_AREA = label("item area:");
+    private static final byte[] WIDTH = label("width:");
+    private static final byte[] SHAPE_HEADER = label("width");
+
+    private final byte[] bytes;
+    private int position;
+    // The bounds of the cell last read
+    private int cellStart;
+    private int cellEnd;
+    private boolean rowEnded;
+
+    private ShapeListReader(byte[] bytes){
+        this.bytes = bytes;
+        // Skip the byte order mark that spreadsheets add to the start of the file
+        if (bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            position = 3;
+        }
+    }
+
+    /**
+     * Reads every instance in a csv file of shape lists
+     *
+     * @param filePath the csv file
+     * @param limitToTen whether to only read the first 10 shapes of each instance, for debugging
+     * @return the instances in the order of their columns, each with its shapes sorted from largest area first
+     * @throws IOException if the file could not be read
+     */
+    public static List<PackingInstance> read(String filePath, boolean limitToTen) throws IOException {
+        return new ShapeListReader(Files.readAllBytes(Paths.get(filePath))).readInstances(limitToTen);
+    }
+
+    private List<PackingInstance> readInstances(boolean limitToTen){
+        List<String> names = new ArrayList<>();
+        // Size, item area and strip width of each group of columns, -1 if not given, then 1 if the group is labelled as a list
+        List<int[]> headers = new ArrayList<>();
+
+        // Process header
+        while (position < bytes.length) {
+            int column = 0;
+            boolean shapeHeader = false;
+            do {
+                nextCell();
+                int instance = column / COLUMNS;
+                if (column % COLUMNS == 0 && instance == headers.size()) {
+                    names.add(null);
+                    headers.add(new int[]{-1, -1, -1, 0});
+                }
+                if (column % COLUMNS == 1) {
+                    shapeHeader |= cellEquals(SHAPE_HEADER);
+                    int valueStart = cellStart, valueEnd = cellEnd;
+                    byte[] label = cellEquals(NAME) ? NAME : cellEquals(SIZE) ? SIZE
+                            : cellEquals(ITEM_AREA) ? ITEM_AREA : cellEquals(WIDTH) ? WIDTH : null;
+                    if (label != null && !rowEnded) {
+                        // Only columns with a name or size are a list, the rest are empty cells at the end of a row
+                        if (label == NAME || label == SIZE) {
+                            headers.get(instance)[3] = 1;
+                        }
+                        nextCell();
+                        column++;
+                        if (label == NAME) {
+                            names.set(instance, cellString());
+                        } else {
+                            int value = cellInt();
+                            headers.get(instance)[label == SIZE ? 0 : label == ITEM_AREA ? 1 : 2] = value;
+                        }
+                    }
+                }
+                column++;
+            } while (!rowEnded);
+            // The header ends at the row naming the columns of each shape
+            if (shapeHeader) {
+                break;
+            }
+        }
+
+        // Number the labelled groups of columns as the instances, in order
+        int groups = names.size();
+        int[] instanceOf = new int[groups];
+        List<String> instanceNames = new ArrayList<>();
+        List<int[]> instanceHeaders = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            instanceOf[group] = -1;
+            if (headers.get(group)[3] == 1) {
+                instanceOf[group] = instanceNames.size();
+                instanceNames.add(names.get(group));
+                instanceHeaders.add(headers.get(group));
+            }
+        }
+
+        int count = instanceNames.size();
+        Shape[][] shapes = new Shape[count][];
+        int[] boxWidths = new int[count];
+        for (int instance = 0; instance < count; instance++) {
+            int[] header = instanceHeaders.get(instance);
+            int size = limitToTen ? Math.min(10, header[0]) : header[0];
+            shapes[instance] = new Shape[Math.max(0, size)];
+            // Without an explicit width the width is chosen from the name of the list
+            boxWidths[instance] = header[2] != -1 ? header[2] : "M1a".equals(instanceNames.get(instance)) ? 40 : 100;
+        }
+
+        // Process each shape, every row holds the next shape of each instance that has one left
+        for (int row = 0; position < bytes.length; row++) {
+            int column = 0;
+            do {
+                nextCell();
+                int group = column / COLUMNS;
+                int instance = group < groups ? instanceOf[group] : -1;
+                if (column % COLUMNS == 0 && instance != -1 && row < shapes[instance].length && cellStart < cellEnd) {
+                    String id = cellString();
+                    nextCell();
+                    int width = cellInt();
+                    nextCell();
+                    int height = cellInt();
+                    column += 2;
+                    shapes[instance][row] = fitShape(id, width, height, boxWidths[instance], row);
+                }
+                column++;
+            } while (!rowEnded);
+        }
+
+        List<PackingInstance> instances = new ArrayList<>(count);
+        for (int instance = 0; instance < count; instance++) {
+            int[] header = instanceHeaders.get(instance);
+            // Sort the array of shapes from largest area first to smallest area last
+            Arrays.sort(shapes[instance], Collections.reverseOrder());
+            instances.add(new PackingInstance(shapes[instance], boxWidths[instance], instanceNames.get(instance), header[1]));
+        }
+        return instances;
+    }
+
+    /**
+     * Create a shape that fits within the width of the sheet, with the larger side as the width where possible
+     * @param id the shape number
+     * @param width the width given in the file
+     * @param height the height given in the file
+     * @param boxWidth the width of the sheet
+     * @param i the index of the shape in its list
+     * @return the shape
+     */
+    private static Shape fitShape(String id, int width, int height, int boxWidth, int i){
+        // Make sure the shapes has a width that can fit
+        if(width > boxWidth){
+            // If height can't fit either then we can't use that shape
+            if(height > boxWidth) {
+                System.out.println("The shape " + i + " has a height and width greater than " + boxWidth);
+                // We add an empty shape so we can still use the rest of the list
+                return new Shape("Missing", 0, 0);
+            }
+            return new Shape(id, height, width);
+        }
+        // Put the larger value into width to help with sorting the initial order
+        else if (width < height) {
+            return new Shape(id, height, width);
+        }
+        return new Shape(id, width, height);
+    }
+
+    /**
+     * Move to the next cell of the current row, or the first cell of the next row if the last cell ended its row
+     */
+    private void nextCell(){
+        cellStart = position;
+        while (position < bytes.length && bytes[position] != ',' && bytes[position] != '\n' && bytes[position] != '\r') {
+            position++;
+        }
+        cellEnd = position;
+        rowEnded = position >= bytes.length || bytes[position] != ',';
+        if (rowEnded) {
+            // Step over the line end, which may be \r\n
+            if (position < bytes.length && bytes[position] == '\r') {
+                position++;
+            }
+        }
+        if (position < bytes.length) {
+            position++;
+        }
+    }
+
+    private boolean cellEquals(byte[] label){
+        return cellEnd - cellStart == label.length
+                && Arrays.equals(bytes, cellStart, cellEnd, label, 0, label.length);
+    }
+
+    private String cellString(){
+        return new String(bytes, cellStart, cellEnd - cellStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the whole number in the cell
+     * @throws NumberFormatException if the cell does not hold a whole number
+     */
+    private int cellInt(){
+        int i = cellStart;
+        boolean negative = i < cellEnd && bytes[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == cellEnd) {
+            throw new NumberFormatException("Expected a number but found \"" + cellString() + "\"");
+        }
+        int value = 0;
+        for (; i < cellEnd; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Expected a number but found \"" + cellString() + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static byte[] label(String text){
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
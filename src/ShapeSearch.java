@@ -1,31 +1,20 @@
-import java.awt.*;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.swing.*;
+import java.util.function.Function;
+import javax.management.JMException;
 
-public class ShapeSearch extends Canvas {
+public class ShapeSearch {
 
     //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
 
-    static boolean debug = false;
-    static int boxWidth;
-    static int k;
-    static int cost;
-    enum Method {
-        VND,
-        RVNS,
-        BVNS,
-        GVNS,
-        SVNS
-    }
-
     /**
      * Reads the shapes in from a csv file
      *
@@ -33,95 +22,30 @@ public class ShapeSearch extends Canvas {
      *          columnNumber: which column of the CSV is to be read
      *          limitToTen: boolean that controls whether input is limited for debug purposes
      *
-     * @return  a 1D array of shapes, either limited to 10 or else the size of the CSV column
+     * @return  the instance of shapes sorted from largest area first, either limited to 10 or else the size of the CSV column
      */
-    private static Shape[] readCSV(String filePath, int columnNumber, boolean limitToTen) {
-        Shape[] shapes = null;
-
-        int column = (columnNumber - 1) * 4;
-
-        // Parse CSV file into BufferedReader
+    static PackingInstance readCSV(String filePath, int columnNumber, boolean limitToTen) {
+        List<PackingInstance> instances;
         try {
-            BufferedReader br = new BufferedReader(new FileReader(filePath));
-
-            // Process header
-            String line = br.readLine();
-            String[] cells = line.split(",");
-
-            //extract name from header
-            String name = cells[column + 2];
-            if(name.equals("M1a")){
-                boxWidth = 40;
-            }
-            else{
-                boxWidth = 100;
-            }
-
-            line = br.readLine();
-            cells = line.split(",");
-
-            //extract size from header
-            int size = Integer.parseInt(cells[column + 2]);
-
-            line = br.readLine();
-            cells = line.split(",");
-            int itemArea = Integer.parseInt(cells[column + 2]);
-
-            // Skip the next two lines
-            br.readLine();
-            br.readLine();
-
-            //if boolean is toggled, limit number of inputs
-            if (limitToTen) {
-                size = 10;
-            }
-
-            shapes = new Shape[size];
-
-            // Process each shape
-            for (int i = 0; i < size; i++) {
-                // Convert each line of the CSV file into a shape object
-                line = br.readLine();
-                cells = line.split(",");
-                int width = Integer.parseInt(cells[column + 1]);
-                int height = Integer.parseInt(cells[column + 2]);
-
-                // Make sure the shapes has a width that can fit
-                if(width > boxWidth){
-                    // If height can't fit either then we can't use that shape
-                    if(height > boxWidth) {
-                        System.out.println("The shape " + i + " has a height and width greater than " + boxWidth);
-                        // We add an empty shape so we can still use the rest of the list
-                        shapes[i] = (new Shape("Missing", 0, 0));
-                    }
-                    else{
-                        shapes[i] = (new Shape(cells[column], height, width));
-                    }
-                }
-                // Put the larger value into width to help with sorting the initial order
-                else if (width < height) {
-                    shapes[i] = (new Shape(cells[column], height, width));
-                } else {
-                    shapes[i] = (new Shape(cells[column], width, height));
-                }
-            }
-            //after reading all the shapes, we are done with using the bufferedreader
-            br.close();
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+            instances = ShapeListReader.read(filePath, limitToTen);
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new RuntimeException("Could not read the shape lists in " + filePath, e);
         }
-
-        return shapes;
+        if (columnNumber < 1 || columnNumber > instances.size()) {
+            throw new IllegalArgumentException(filePath + " has no list " + columnNumber + ", it has " + instances.size());
+        }
+        return instances.get(columnNumber - 1);
     }
 
     /**
      * Prints a message and then the shapes out in order.
      * @param x the solution to print details about.
      * @param Message to be displayed above the list of shapes.
+     * @param boxWidth the width of the sheet
+     * @param lowerBound the height that no solution can be lower than
+     * @param debug whether to print the order of shapes
      */
-    private static void printSummary(Solution[] x, double[] runLengths, int[] runCosts, int i, String Message){
+    private static void printSummary(Solution[] x, double[] runLengths, int[] runCosts, int i, String Message, int boxWidth, int lowerBound, boolean debug){
         if(debug) {
             // Print out the order of shapes
             System.out.print("Shape order to add: ");
@@ -152,6 +76,10 @@ public class ShapeSearch extends Canvas {
         // Report the best result
         System.out.println(Message + " found the least area of " + (x[i].getScore() * boxWidth + " after searching " + runCosts[i] + " solutions over " + runLengths[i] / 1E9 + " seconds."));
 
+        // Report how far the best result could be from optimal
+        double gap = SearchResult.gap(x[i].getScore(), lowerBound);
+        System.out.println("The lower bound is an area of " + lowerBound * boxWidth + " so the optimality gap is " + String.format("%.2f", gap) + "%");
+
         // Report average and lowest cost
         System.out.println("The average cost was " + aveCost + " with the lowest cost being " + runCosts[lowC] + " from run " + (lowC + 1));
 
@@ -161,263 +89,58 @@ public class ShapeSearch extends Canvas {
         System.out.println();
     }
 
-    /**
-     * This function either resets k to 1 and makes a move to a better current best solution ot increments k
-     * @param xBest the current best solution
-     * @param xNew the next solution to move to
-     * @return the best of the two solutions
-     */
-    private static Solution NeighbourhoodChange(Solution xBest, Solution xNew){
-        if(xNew.getScore() < xBest.getScore()){
-            xBest = xNew;
-            if(debug){
-                System.out.println("New fit at k=" + k + " with an area of " + xBest.getScore());
-            }
-            k = 1;
-        }
-        else{
-            k++;
-        }
-        return xBest;
-    }
-
-    /**
-     * Variable Neighbourhood Descent
-     * Check all neighbourhoods and return best solution
-     *
-     * @param x the current  solution
-     * @param kMax teh max k neighbour to search up to
-     * @return best solution in neighbourhoods
-     */
-    private static Solution VND(Solution x, int kMax){
-        k = 1;
-        do{
-            // Add to cost the length whenever we search the entire neighbourhood
-            cost += x.getOrder().length;
-            // Find the best neighbor in neighborhood k
-            Solution xNew = x.getBestInNeighborhood(k);
-            // Change neighborhood
-            x = NeighbourhoodChange(x, xNew);
-        } while (k < kMax);
-        return x;
-    }
-
-    /**
-     * Reduced Variable Neighbourhood Search
-     * Repeatedly iterates over neighbourhoods, picking a single random solution from each neighbourhood, until a fixed amount of time expires
-     *
-     * @param x the current solution
-     * @param kMax the max neighbourhoods to test
-     * @param tMax the max amount of time to search for the best solution
-     * @return the best solution found
-     */
-    private static Solution RVNS(Solution x, int kMax, double tMax){
-        double t;
-        // Get current time to help measure how long the RVNS runs for.
-        double tStart = System.nanoTime();
-        do{
-            k = 1;
-            do{
-                // Add one to cost whenever we find a random neighbourhood
-                cost++;
-                Solution xShook = x.Shake(k);
-                x = NeighbourhoodChange(x, xShook);
-            } while (k < kMax);
-            // Save current CPU time minus initial start time into t for the elapsed time
-            t = System.nanoTime() - tStart;
-        } while (t < tMax);
-        return x;
-    }
-
-    /**
-     * Basic Variable Neighbourhood Search
-     * @param x the current solution
-     * @param kMax the max neighbourhoods to test
-     * @param tMax the max amount of time to search for the best solution
-     * @return the best solution found
-     */
-    private static Solution BVNS(Solution x, int kMax, double tMax){
-        double t;
-        // Get current time to help measure how long the RVNS runs for.
-        double tStart = System.nanoTime();
-        do{
-            k = 1;
-            do{
-                // Add one to cost whenever we find a random neighbourhood
-                cost++;
-                Solution xShook = x.Shake(k);                   // Shaking
-                Solution xFirst = xShook.FirstImprovment(k);   // Local Search
-                // Add to cost whenever we find the neighbourhood with improvement
-                cost += xShook.getFirstImprovementCost();
-                x = NeighbourhoodChange(x, xFirst);            // Change neighborhood
-            } while (k < kMax);
-            // Save current CPU time minus initial start time into t for the elapsed time
-            t = System.nanoTime() - tStart;
-        } while (t < tMax);
-        return x;
-    }
-
-    /**
-     * General Variable Neighbourhood Search
-     * @param x the current solution
-     * @param lMax the local max neighbourhoods to test in the VND
-     * @param kMax the max neighbourhoods to test
-     * @param tMax the max amount of time to search for the best solution
-     * @return the best solution found
-     */
-    private static Solution GVNS(Solution x, int lMax, int kMax, double tMax){
-        double t;
-        // Get current time to help measure how long the RVNS runs for.
-        double tStart = System.nanoTime();
-        do{
-            k = 1;
-            do{
-                // Add one to cost whenever we find a random neighbourhood
-                cost++;
-                Solution xShook = x.Shake(k);      // Shaking
-                int storedK = k;
-                Solution xVND = VND(x, lMax);      // VND
-                k = storedK;
-                x = NeighbourhoodChange(x, xVND);  // Change neighborhood
-            } while (k < kMax);
-            // Save current CPU time minus initial start time into t for the elapsed time
-            t = System.nanoTime() - tStart;
-        } while (t < tMax);
-        return x;
-    }
-
-    /**
-     * Skewed Variable Neighbourhood Search
-     *
-     * @param xBest the current best solution
-     * @param xNew the next solution to move to
-     * @param alpha the multiplier to take a distant solution
-     * @return the best of the two solutions
-     */
-    private static Solution NeighbourhoodChangeS(Solution xBest, Solution xNew, double alpha){
-        int a = (int)(alpha * p(xBest, xNew));
-        if(xNew.getScore() - a < xBest.getScore()){
-            xBest = xNew;
-            if(debug) {
-                System.out.println("Skewed fit at k=" + k + " with an area of " + xBest.getScore());
-            }
-            k = 1;
-        }
-        else{
-            k++;
-        }
-        return xBest;
-    }
-
-    /**
-     * Measure the distance between solutions.
-     * @param x1 a solution
-     * @param x2 a different solution
-     * @return the best solution
-     */
-    private static int p(Solution x1, Solution x2){
-        // Find the distance between the two solutions
-        int distance = 0;
-        Shape[] s1 = x1.getOrder();
-        Shape[] s2 = x2.getOrder();
-        // Increase the distance for each different shape
-        for (int i = 0; i < s1.length; i++) {
-            if(!s1[i].equals(s2[i])){
-                distance++;
-            }
-        }
-        return distance;
-    }
-
-    /**
-     * Skewed Variable Neighbourhood Search
-     * @param x the current solution
-     * @param kMax the max neighbourhoods to test
-     * @param tMax the max amount of time to search for the best solution
-     * @param alpha the multiplier to take a distant solution
-     * @return the best solution
-     */
-    private static Solution SVNS(Solution x, int kMax, double tMax, double alpha){
-        double t;
-        // Get current time to help measure how long the RVNS runs for.
-        double tStart = System.nanoTime();
-        Solution xBest = x;
-        do{
-            k = 1;
-            do{
-                // Add one to cost whenever we find a random neighbourhood
-                cost++;
-                Solution xShook = x.Shake(k);
-                Solution xFirst = xShook.FirstImprovment(k);
-                // Add to cost whenever we find the neighbourhood with improvement
-                cost += xShook.getFirstImprovementCost();
-                x = NeighbourhoodChangeS(x, xFirst, alpha);
-                if(x.getScore() < xBest.getScore()){
-                    xBest = x;
-                }
-            } while(k < kMax);
-            x = xBest;
-            // Save current CPU time minus initial start time into t for the elapsed time
-            t = System.nanoTime() - tStart;
-        } while (t < tMax);
-        return x;
-    }
-
     /**
      * Runs each searching method
-     * @param method
-     * @param kMax
-     * @param tMax
-     * @param lMax
-     * @param alpha
-     * @param shapes
-     * @param seed
+     * @param config the settings of the search, the seed is changed for each run
+     * @param instance
      * @param fileInfo
      * @param runs
+     * @param engine the engine to search with
+     * @param workers the pool the runs are searched on
      * @return
      */
-    private static Solution runMethod(Method method, int kMax, double tMax, int lMax, double alpha, Shape[] shapes, int seed, String fileInfo, int runs){
+    private static Solution runMethod(SearchConfig config, PackingInstance instance, String fileInfo, int runs, SearchEngine engine, ExecutorService workers){
+        return runMethod(config, config.getMethod().toString(), instance, fileInfo, runs, workers, runConfig -> engine.search(instance, runConfig));
+    }
+
+    /**
+     * Runs a search a number of times
+     * @param config the settings of the search, the seed is changed for each run
+     * @param method the name of the search to report
+     * @param instance the shapes and sheet width
+     * @param fileInfo the file and column of the shapes
+     * @param runs the number of runs
+     * @param workers the pool the runs are searched on
+     * @param search searches once with the settings of a run
+     * @return the best solution of any run
+     */
+    private static Solution runMethod(SearchConfig config, String method, PackingInstance instance, String fileInfo, int runs,
+                                      ExecutorService workers, Function<SearchConfig, SearchResult> search){
 
         double[] runLengths = new double[runs];
         int[] runCosts = new int[runs];
         Solution[] x = new Solution[runs];
         int bestIndex = 0;
 
-        // Repeat test with a different seed for each run
+        // Start every run on the workers, each with a different seed
+        List<Future<SearchResult>> results = new ArrayList<>();
+        int seed = config.getSeed();
         for(int i = 0; i < runs; i++){
             // Change the seed value
             seed += 1000;
+            SearchConfig runConfig = config.toBuilder().seed(seed).build();
+            results.add(workers.submit(() -> search.apply(runConfig)));
+        }
 
-            //start timing program
-            double initialTime = System.nanoTime();
-
-            // Create initial solution with order to add shapes, the shapes, the options to fit, and the box width
-            x[i] = new Solution(shapes, boxWidth, seed);
-            if (debug) {
-                System.out.println("First fit used an area of " + x[i].getScore());
-            }
-            // Start cost at one as we have created the initial solution
-            cost = 1;
-
-            if (method == Method.VND) {
-                // Variable Neighbourhood Descent
-                x[i] = VND(x[i], kMax);
-            } else if (method == Method.RVNS) {
-                // Reduced Variable Neighbourhood Search
-                x[i] = RVNS(x[i], kMax, tMax);
-            } else if (method == Method.BVNS) {
-                // Basic Variable Neighbourhood Search
-                x[i] = BVNS(x[i], kMax, tMax);
-            } else if (method == Method.GVNS) {
-                // General Variable Neighbourhood Search
-                x[i] = GVNS(x[i], lMax, kMax, tMax);
-            } else if (method == Method.SVNS) {
-                // Reduced Variable Neighbourhood Search
-                x[i] = SVNS(x[i], kMax, tMax, alpha);
+        // Collect the runs in order
+        for(int i = 0; i < runs; i++){
+            SearchResult result;
+            try {
+                result = results.get(i).get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Run " + (i + 1) + " of " + method + " failed", e);
             }
-
-            //finish timing program
-            double finalTime = System.nanoTime();
+            x[i] = result.getSolution();
 
             // Keep track of best solution
             if(x[i].getScore() < x[bestIndex].getScore()){
@@ -429,131 +152,201 @@ public class ShapeSearch extends Canvas {
                 }
             }
 
-            runLengths[i] = finalTime - initialTime;
-            runCosts[i] = cost;
+            runLengths[i] = result.getElapsedTime();
+            runCosts[i] = result.getCost();
 
             System.out.println("Run " + (i + 1) + " of " + method + " least area = " + x[i].getScore() + " after testing " + runCosts[i] + " Solutions");
             //Please do not remove or change the format of this output message
-            System.out.println("Processed " + x[i].getOrder().length + " shapes in " + (runLengths[i]) / 1E9  + " secs.");
+            System.out.println("Processed " + x[i].size() + " shapes in " + (runLengths[i]) / 1E9  + " secs.");
+            if (config.isDebug()) {
+                System.out.println("Cache hits " + result.getCacheHits() + ", misses " + result.getCacheMisses());
+            }
         }
 
         // Report how much space was used to fit all the shapes
-        printSummary(x, runLengths, runCosts, bestIndex, method.toString() + ": " + fileInfo);
+        printSummary(x, runLengths, runCosts, bestIndex, method + ": " + fileInfo, instance.getBoxWidth(), instance.getLowerBound(), config.isDebug());
 
         return x[bestIndex];
     }
 
+    /**
+     * Count where the search spends its time only if asked, as timing every evaluation has a cost.
+     * The counters are shown through JMX until stopTelemetry is called.
+     * @param options the command line options
+     * @return the counters, or null if they were not asked for
+     */
+    static SearchTelemetry startTelemetry(SearchOptions options){
+        if (options.metricsPeriod <= 0) {
+            return null;
+        }
+        SearchTelemetry telemetry = new SearchTelemetry();
+        try {
+            telemetry.register("ShapeSearch");
+        } catch (JMException e) {
+            System.out.println("Could not show the search counters through JMX: " + e.getMessage());
+        }
+        return telemetry;
+    }
+
+    /**
+     * Print the counters on a daemon thread once every metrics period
+     * @param telemetry the counters, or null if they were not asked for
+     * @param options the command line options
+     * @return the scheduler printing the counters, or null if there are no counters
+     */
+    static ScheduledExecutorService startDump(SearchTelemetry telemetry, SearchOptions options){
+        return telemetry == null ? null : telemetry.dumpEvery(options.metricsPeriod, System.err);
+    }
+
+    /**
+     * Stop printing the counters and remove them from JMX once the search has finished
+     * @param telemetry the counters, or null if they were not asked for
+     * @param dump the scheduler printing the counters, or null if there is none
+     */
+    static void stopTelemetry(SearchTelemetry telemetry, ScheduledExecutorService dump){
+        if (dump != null) {
+            dump.shutdown();
+        }
+        if (telemetry != null) {
+            try {
+                telemetry.unregister();
+            } catch (JMException e) {
+                System.out.println("Could not remove the search counters from JMX: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Open the convergence trace file only if asked
+     * @param options the command line options
+     * @return the trace, or null if it was not asked for or could not be created
+     */
+    static ConvergenceTrace startTrace(SearchOptions options){
+        if (options.traceFile == null) {
+            return null;
+        }
+        try {
+            return new ConvergenceTrace(options.traceFile);
+        } catch (IOException e) {
+            System.out.println("Could not write the convergence trace: " + e.getMessage());
+            return null;
+        }
+    }
+
     public static void main(String[] args) {
 
-        int kMax = -1;
-        int lMax = -1;
-        // The default values that are used if arguments are not given
-        double tMax = 1;
-        double alpha = 0.01;
-        int seed = 4563;
+        // Solve many lists in one run when the first argument is batch
+        if (args.length >= 1 && args[0].equals("batch")) {
+            BatchSearch.run(SearchOptions.parse(args, 1));
+            return;
+        }
+
         int columnNumber = 1;
         String filePath = "ShapeLists/GivenLists.csv";
-        boolean limitToTen = false;
-        Method thisMethod = null;
+        SearchOptions options = new SearchOptions();
 
         // Allow other shape lists to be selected
         if (args.length >= 2) {
             columnNumber = Integer.parseInt(args[0]);
             filePath = args[1];
 
-            // Allow extra options to be selected
-            if (args.length >= 3) {
-                // Check for matching options in the 3rd or later arguments
-                for (int i = 2; i < args.length; i++) {
-                    if (args[i].equals("limit")) {
-                        limitToTen = true;
-                    }
-                    else if (args[i].equals("-t") && i + 1 < args.length){
-                        try {
-                            tMax = Double.parseDouble(args[i + 1]);
-                        } catch(Exception e){
-                            System.out.println("To set the time limit of search algorithims add the argument '-t' followed by the number of seconds in the next argument");
-                        }
-                    }
-                    else if (args[i].equals("-S") && i + 1 < args.length){
-                        try {
-                            seed = Integer.parseInt(args[i + 1]);
-                        } catch(Exception e){
-                            System.out.println("To set the random seed for random move add the argument '-S' followed by the seed number in the next argument");
-                        }
-                    }
-                    else if (args[i].equals("-a") && i + 1 < args.length){
-                        try {
-                            alpha = Double.parseDouble(args[i + 1]);
-                        } catch(Exception e){
-                            System.out.println("To set the alpha value for SVNS add the argument '-a' followed by the alpha number in the next argument");
-                        }
-                    }
-                    else if (args[i].equals("-k") && i + 1 < args.length) {
-                        try {
-                            kMax = Integer.parseInt(args[i + 1]);
-                        } catch (Exception e) {
-                            System.out.println("To set the mad k value add the argument '-k' followed by the max k number in the next argument");
-                        }
-                    }
-                    else if (args[i].equals("-l") && i + 1 < args.length){
-                            try {
-                                lMax = Integer.parseInt(args[i + 1]);
-                            } catch(Exception e){
-                                System.out.println("To set the local max k for GVNS add the argument '-l' followed by the max local k number in the next argument");
-                            }
-                    } else if (args[i].equals("debug")){
-                        debug = true;
-                    } else {
-                        for (Method m: Method.values()) {
-                            if(args[i].equals(m.toString())){
-                                thisMethod = m;
-                            }
-                        }
-                    }
-                }
-            }
+            // Allow extra options to be selected in the 3rd or later arguments
+            options = SearchOptions.parse(args, 2);
         }
         String fileInfo = filePath + " " + columnNumber;
-
-        Shape[] shapes = readCSV(filePath, columnNumber, limitToTen); //set to limit input to 10 shapes maximum
-
-        if(kMax == -1) {
-            // kMax equals the number of shapes times the number of different changes that could be made
-            kMax = shapes.length * 3;
-        }
-        if(lMax == -1) {
-            lMax = shapes.length / 10;
-        }
-        // Convert tMax from seconds to nanoseconds
-        tMax *= 1E9;
-
-        // Sort the array of shapes from largest area first to smallest area last
-        Arrays.sort(shapes, Collections.reverseOrder());
+        SearchMethod thisMethod = options.method;
+
+        PackingInstance instance = readCSV(filePath, columnNumber, options.limitToTen); //set to limit input to 10 shapes maximum
+        int boxWidth = instance.getBoxWidth();
+
+        // Search neighbourhoods one at a time unless more than one thread is asked for
+        ForkJoinPool pool = options.threads > 1 ? new ForkJoinPool(options.threads) : null;
+        // Search the runs of each method on their own threads
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, options.runThreads));
+        SearchEngine engine = new SearchEngine();
+        SearchTelemetry telemetry = startTelemetry(options);
+        ScheduledExecutorService dump = startDump(telemetry, options);
+        ConvergenceTrace trace = startTrace(options);
+        // Keep the best solution found so far so it can be reported if the search is stopped before it ends
+        BestSoFar bestSoFar = new BestSoFar();
+        Thread reportOnStop = new Thread(() -> {
+            SearchProgress best = bestSoFar.get();
+            if (best != null) {
+                System.out.println("Stopped early, " + best.getMethod() + " had found an area of " + best.getScore() * boxWidth
+                        + " after searching " + best.getCost() + " solutions");
+            }
+            if (trace != null) {
+                trace.close();
+            }
+        });
+        Runtime.getRuntime().addShutdownHook(reportOnStop);
+        SearchConfig config = options.toConfigBuilder()
+                .pool(pool)
+                .telemetry(telemetry)
+                .listener(SearchListener.all(trace, bestSoFar))
+                .build();
 
         Solution x = null;
         String bestMethod = "";
 
-        if(thisMethod == null) {
-
-            // Try each different type of search method
-            for (Method m : Method.values()) {
-                Solution xNew = runMethod(m, kMax, tMax, lMax, alpha, shapes, seed, fileInfo, 10);
-                if (x == null || xNew.getScore() < x.getScore()) {
-                    x = xNew;
-                    bestMethod = m.toString();
+        // Stop the threads, the trace and the counters whether or not every run succeeds, so a failed run does not keep the JVM alive
+        try {
+            if (options.islands != null) {
+                // Search with many islands at once that share their best solutions
+                SearchOptions islandOptions = options;
+                x = runMethod(config, "Islands", instance, fileInfo, 10, workers,
+                        runConfig -> engine.searchIslands(instance, islandOptions.islandConfigs(runConfig)));
+                bestMethod = "Islands";
+            }
+            else if(thisMethod == null) {
+
+                // Try each different type of search method
+                for (SearchMethod m : SearchMethod.values()) {
+                    Solution xNew = runMethod(config.toBuilder().method(m).build(), instance, fileInfo, 10, engine, workers);
+                    if (x == null || xNew.getScore() < x.getScore()) {
+                        x = xNew;
+                        bestMethod = m.toString();
+                    }
                 }
             }
+            else{
+                x = runMethod(config.toBuilder().method(thisMethod).build(), instance, fileInfo, 10, engine, workers);
+                bestMethod = thisMethod.toString();
+            }
+        } finally {
+            workers.shutdown();
+            if (pool != null) {
+                pool.shutdown();
+            }
+            Runtime.getRuntime().removeShutdownHook(reportOnStop);
+            if (trace != null) {
+                trace.close();
+            }
+            stopTelemetry(telemetry, dump);
         }
-        else{
-            x = runMethod(thisMethod, kMax, tMax, lMax, alpha, shapes, seed, fileInfo, 10);
-            bestMethod = thisMethod.toString();
+        if (telemetry != null) {
+            telemetry.print(System.err);
         }
-        
+
         // State best solution
         System.out.println(bestMethod + " found best solution with an area of " + x.getScore() * boxWidth);
 
-        // Set up the graphical display
-        new GraphicalDisplay(boxWidth, x.getScore() + 5, x.getDrawDimensions());
+        // Write the best solution to files, before the window is shown if it is asked for
+        DrawingDimensions[] toBeDrawn = x.getDrawDimensions();
+        try {
+            if (options.svgFile != null) {
+                SolutionExporter.writeSvg(options.svgFile, boxWidth, x.getScore() + 5, toBeDrawn);
+            }
+            if (options.pngFile != null) {
+                SolutionExporter.writePng(options.pngFile, boxWidth, x.getScore() + 5, toBeDrawn);
+            }
+        } catch (IOException e) {
+            System.out.println("Could not write the solution: " + e.getMessage());
+        }
+
+        // Set up the graphical display only if asked for
+        if (options.show) {
+            new GraphicalDisplay(boxWidth, x.getScore() + 5, toBeDrawn);
+        }
     }
-}
\ No newline at end of file
+}
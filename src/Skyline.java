@@ -0,0 +1,279 @@
+import java.util.Arrays;
+
+public class Skyline {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // The y values along the top of all added shapes stored as segments of equal height.
+    // Segment s covers x values from starts[s] up to the start of the next segment, or the width for the last one.
+    // Neighbouring segments never have the same height.
+    private final int width;
+    private int[] starts;
+    private int[] heights;
+    private int count;
+    private int[] window = new int[16]; // Segments under a shape sliding across, reused by lowestLeft
+
+    /**
+     * Creates an empty skyline
+     * @param width the width of the sheet
+     */
+    public Skyline(int width){
+        this.width = width;
+        starts = new int[16];
+        heights = new int[16];
+        reset();
+    }
+
+    /**
+     * Remove all shapes from the skyline
+     */
+    public void reset(){
+        starts[0] = 0;
+        heights[0] = 0;
+        count = 1;
+    }
+
+    /**
+     * @return the width of the sheet
+     */
+    public int getWidth(){
+        return width;
+    }
+
+    /**
+     * @return the amount of segments of equal height
+     */
+    public int getSegmentCount(){
+        return count;
+    }
+
+    /**
+     * @param x a value from 0 up to the width
+     * @return the y value at x
+     */
+    public int heightAt(int x){
+        return heights[segmentAt(x)];
+    }
+
+    /**
+     * Find the width from x to the first point to the right that is higher than x
+     * @param x a value from 0 up to the width
+     * @return the width a shape placed at x can fit into, 0 if x is the width
+     */
+    public int fitWidth(int x){
+        if (x >= width) {
+            return 0;
+        }
+        int s = segmentAt(x);
+        int y = heights[s];
+        // Move across every segment that is no higher than x
+        s++;
+        while (s < count && heights[s] <= y) {
+            s++;
+        }
+        return end(s - 1) - x;
+    }
+
+    /**
+     * Find the first point to the right of x that is on a different y level
+     * @param x a value from 0 up to but not including the width
+     * @return the next x on a new y level, or the width if there is none
+     */
+    public int nextLevel(int x){
+        return end(segmentAt(x));
+    }
+
+    /**
+     * Move x back to the left over every point that is no lower than the point before it
+     * @param x a value from 0 up to the width
+     * @return the x at the bottom of the step to the left of x, or x if it is 0 or the width
+     */
+    public int moveBack(int x){
+        if (x <= 0 || x >= width) {
+            return x;
+        }
+        int s = segmentAt(x);
+        // Step back a segment at a time until the one to the left is higher
+        while (s > 0 && heights[s] >= heights[s - 1]) {
+            s--;
+        }
+        return starts[s];
+    }
+
+    /**
+     * Set the y value of every point from left up to but not including right
+     * @param left the first x value covered by a shape
+     * @param right the x value after the last covered by a shape
+     * @param y the new y value
+     */
+    public void place(int left, int right, int y){
+        if (left >= right) {
+            return;
+        }
+        int first = segmentAt(left);
+        int last = segmentAt(right - 1);
+        int newStart = left;
+        int lastEnd = end(last);
+        int lastHeight = heights[last];
+
+        // Keep the part of the first segment before left, joining it if it has the same height
+        boolean keepBefore = false;
+        if (starts[first] < left) {
+            if (heights[first] == y) {
+                newStart = starts[first];
+            } else {
+                keepBefore = true;
+            }
+        } else if (first > 0 && heights[first - 1] == y) {
+            first--;
+            newStart = starts[first];
+        }
+
+        // Keep the part of the last segment after right, joining it if it has the same height
+        boolean keepAfter = false;
+        if (lastEnd > right) {
+            keepAfter = lastHeight != y;
+        } else if (last + 1 < count && heights[last + 1] == y) {
+            last++;
+        }
+
+        // Replace the covered segments with the new ones
+        int replacement = 1 + (keepBefore ? 1 : 0) + (keepAfter ? 1 : 0);
+        int shift = replacement - (last - first + 1);
+        ensureCapacity(count + shift);
+        System.arraycopy(starts, last + 1, starts, last + 1 + shift, count - last - 1);
+        System.arraycopy(heights, last + 1, heights, last + 1 + shift, count - last - 1);
+        count += shift;
+
+        int s = keepBefore ? first + 1 : first;
+        starts[s] = newStart;
+        heights[s] = y;
+        if (keepAfter) {
+            starts[s + 1] = right;
+            heights[s + 1] = lastHeight;
+        }
+    }
+
+    /**
+     * Find the greatest y value between two points
+     * @param left the first x value
+     * @param right the x value after the last
+     * @return the greatest y value, or 0 if it is lower
+     */
+    public int maxHeight(int left, int right){
+        int yMax = 0;
+        for (int s = segmentAt(left); s < count && starts[s] < right; s++) {
+            if (heights[s] > yMax) {
+                yMax = heights[s];
+            }
+        }
+        return yMax;
+    }
+
+    /**
+     * Find the area under the skyline between two points
+     * @param left the first x value
+     * @param right the x value after the last
+     * @return the sum of the y values from left up to but not including right
+     */
+    public long area(int left, int right){
+        long area = 0;
+        for (int s = segmentAt(left); s < count && starts[s] < right; s++) {
+            area += (long) heights[s] * (Math.min(right, end(s)) - Math.max(left, starts[s]));
+        }
+        return area;
+    }
+
+    /**
+     * Find the left most position from 0 up to but not including width - shapeWidth where the greatest y value
+     * under a shape would be lowest. The lowest position always starts at 0 or at a segment, so only those are tried.
+     * The window under the shape slides right one segment at a time, keeping a deque of the segments in it whose
+     * heights go down from front to back, so the greatest height is at the front and each segment is added and
+     * removed at most once.
+     * @param shapeWidth the width of the shape
+     * @return the left most x with the lowest greatest y, or -1 if there are no positions to try
+     */
+    public int lowestLeft(int shapeWidth){
+        if (window.length < count) {
+            window = new int[starts.length];
+        }
+        int bestX = -1;
+        int lowestMaxY = -1;
+        int head = 0, tail = 0; // The deque is window[head] up to but not including window[tail]
+        int next = 0;           // The next segment to enter the window
+        for (int s = 0; s < count && starts[s] < width - shapeWidth; s++) {
+            int right = starts[s] + shapeWidth;
+            // Add every segment that starts under the shape, dropping those behind it that are no higher
+            while (next < count && starts[next] < right) {
+                while (tail > head && heights[window[tail - 1]] <= heights[next]) {
+                    tail--;
+                }
+                window[tail++] = next++;
+            }
+            // Remove the segments to the left of the shape
+            while (head < tail && window[head] < s) {
+                head++;
+            }
+            int yMax = head < tail ? Math.max(0, heights[window[head]]) : 0;
+            if (lowestMaxY == -1 || lowestMaxY > yMax) {
+                lowestMaxY = yMax;
+                bestX = starts[s];
+            }
+        }
+        return bestX;
+    }
+
+    /**
+     * Find the largest y value which a shape touches.
+     *
+     * @return the greatest y value.
+     */
+    public int getLargestY(){
+        int yLargest = 0;
+        // Find the greatest value of each segment
+        for (int s = 0; s < count; s++) {
+            if (heights[s] > yLargest) {
+                yLargest = heights[s];
+            }
+        }
+        return yLargest;
+    }
+
+    /**
+     * Binary search for the segment covering x
+     * @param x a value from 0 up to the width
+     * @return the index of the segment
+     */
+    private int segmentAt(int x){
+        int low = 0, high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param s index of a segment
+     * @return the x value after the last covered by the segment
+     */
+    private int end(int s){
+        return s + 1 < count ? starts[s + 1] : width;
+    }
+
+    /**
+     * Grow the segment arrays so they can hold a number of segments
+     * @param size the amount of segments needed
+     */
+    private void ensureCapacity(int size){
+        if (size > starts.length) {
+            int newLength = Math.max(size, starts.length * 2);
+            starts = Arrays.copyOf(starts, newLength);
+            heights = Arrays.copyOf(heights, newLength);
+        }
+    }
+}
@@ -1,29 +1,242 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 public class Solution {
 
     //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
 
-    private Random rand;
-    private int[] yBottomLine; // Record the y values along the top of all added shapes
-    private DrawingDimensions[] toBeDrawn;
-    private Shape[] _shapesOrder;
+    private SearchRandom _random; // Random values of the search, shared with every solution made from the first
+    private PackingInstance _instance;
+    private int[] _order;      // Index of each shape in the order it is fitted
+    private long[] _rotated;   // Bitset of which shapes are rotated, by shape index
     private int _boxWidth;
-    private int _seed;
-    private int score;
+    private ForkJoinPool _pool; // Pool to search neighbourhoods with, or null to search them one at a time
+    private EvaluationCache _cache; // Scores of orders already fitted, or null to fit every order
+    private long _hash;        // Hash of the order and rotations, kept up to date by each move
+    private SearchTelemetry _telemetry; // Counters of the search, or null to not count
+    private int _candidates;   // Amount of positions each neighbourhood tries, or 0 to try every position
+    private int[] candidatePositions; // Positions tried by each neighbourhood, picked once they are needed
+    private int score = -1;    // -1 until the solution is evaluated
     private int firstImprovementCost;
+    private int bestInNeighbourhoodCost;
     private final double moveTypes = 3;
 
-    public Solution(Shape[] shapesOrder, int boxWidth, int seed){
-        _shapesOrder = shapesOrder;
-        _boxWidth = boxWidth;
-        _seed = seed;
-        rand = new Random(_seed);
+    // The deadline given to searches of a neighbourhood that can take as long as they need
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+    // The cutoff given to evaluations that must find the exact score
+    private static final int NO_CUTOFF = Integer.MAX_VALUE;
 
-        yBottomLine = new int[_boxWidth];
-        toBeDrawn = fitShape(_shapesOrder);
+    // Placements and checkpoints recorded by fitShape only once they are needed, for drawing
+    // or so neighbours can resume packing from a shared prefix
+    private int[] placedX;     // x of the shape added at each placement
+    private int[] placedY;     // y of the shape added at each placement
+    private int[] placedIndex; // Index in the order of the shape added at each placement
+    private int[] xAfter;      // Value of x at the start of the pass following each placement
+    private int[] furthestPlaced;   // Highest index in the order placed up to and including each placement
+    private int[] widestMissedGap;  // Widest gap no shape fitted into up to and including each placement
 
-        score = getLargestY();
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any
+     *
+     * @param instance the shapes and sheet width
+     * @param seed the random seed
+     */
+    public Solution(PackingInstance instance, int seed){
+        this(instance, seed, null);
+    }
+
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any,
+     * whose neighbourhoods are searched in parallel
+     *
+     * @param instance the shapes and sheet width
+     * @param seed the random seed
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     */
+    public Solution(PackingInstance instance, int seed, ForkJoinPool pool){
+        this(instance, seed, pool, null);
+    }
+
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any,
+     * whose neighbours are looked up in a cache of scores before being fitted
+     *
+     * @param instance the shapes and sheet width
+     * @param seed the random seed
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     */
+    public Solution(PackingInstance instance, int seed, ForkJoinPool pool, EvaluationCache cache){
+        this(instance, seed, pool, cache, null);
+    }
+
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any,
+     * counting the neighbours and evaluations of the search from it
+     *
+     * @param instance the shapes and sheet width
+     * @param seed the random seed
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param telemetry the counters of the search, or null to not count
+     */
+    public Solution(PackingInstance instance, int seed, ForkJoinPool pool, EvaluationCache cache, SearchTelemetry telemetry){
+        this(instance, new SearchRandom(seed), pool, cache, telemetry);
+    }
+
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any,
+     * taking the random values of its search from a generator
+     *
+     * @param instance the shapes and sheet width
+     * @param random the random values of the search, passed on to every solution made from this one
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param telemetry the counters of the search, or null to not count
+     */
+    public Solution(PackingInstance instance, SearchRandom random, ForkJoinPool pool, EvaluationCache cache, SearchTelemetry telemetry){
+        this(instance, random, pool, cache, telemetry, 0);
+    }
+
+    /**
+     * Creates a solution that fits the shapes of an instance in the order they are given without rotating any,
+     * whose neighbourhoods only try a bounded list of positions so they can search long lists
+     *
+     * @param instance the shapes and sheet width
+     * @param random the random values of the search, passed on to every solution made from this one
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param telemetry the counters of the search, or null to not count
+     * @param candidates the amount of positions each neighbourhood tries, or 0 to try every position
+     */
+    public Solution(PackingInstance instance, SearchRandom random, ForkJoinPool pool, EvaluationCache cache, SearchTelemetry telemetry,
+                    int candidates){
+        this(instance, identityOrder(instance.size()), new long[(instance.size() + 63) >>> 6], random, pool, cache, telemetry, 0,
+                candidates);
+        // Hash every position of the first order, neighbours then only hash the positions they change
+        for (int i = 0; i < _order.length; i++) {
+            _hash ^= EvaluationCache.hashOf(i, _order[i], false);
+        }
+        score = timedFit(_order, _rotated, null, NO_CUTOFF);
+    }
+
+    /**
+     * Creates a solution that is not yet evaluated
+     *
+     * @param instance the shapes and sheet width
+     * @param order the index of each shape in the order it is fitted
+     * @param rotated bitset of which shapes are rotated
+     * @param random the random values of the search
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param telemetry the counters of the search, or null to not count
+     * @param hash the hash of the order and rotations
+     * @param candidates the amount of positions each neighbourhood tries, or 0 to try every position
+     */
+    private Solution(PackingInstance instance, int[] order, long[] rotated, SearchRandom random, ForkJoinPool pool, EvaluationCache cache,
+                     SearchTelemetry telemetry, long hash, int candidates){
+        _instance = instance;
+        _order = order;
+        _rotated = rotated;
+        _boxWidth = instance.getBoxWidth();
+        _random = random;
+        _pool = pool;
+        _cache = cache;
+        _telemetry = telemetry;
+        _hash = hash;
+        _candidates = candidates;
+    }
+
+    /**
+     * Calculate the score of a neighbour, reusing the placements of this solution that could not be changed by its order
+     * and stopping as soon as the score is certain to be greater than a cutoff.
+     * A neighbour stopped early is marked as dominated and its score is only the height reached when it stopped.
+     *
+     * @param neighbour a neighbour created from this solution
+     * @param cutoff the greatest score that is still of use, or NO_CUTOFF to find the exact score
+     */
+    private void evaluate(Neighbour neighbour, int cutoff){
+        // A shape as wide as the sheet can be placed lower than the shapes under it, so the height
+        // reached part way through is not a bound on the score and the fit cannot be stopped early
+        if (_instance.hasFullWidthShape()) {
+            cutoff = NO_CUTOFF;
+        }
+        neighbour.score = timedFit(neighbour.order, neighbour.rotated, this, cutoff);
+        // Fitting only goes above the cutoff if it stopped early
+        neighbour.dominated = neighbour.score > cutoff;
+    }
+
+    /**
+     * Fit an order without recording the placements, as only the score is needed while searching
+     *
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes
+     * @param parent the solution the order was made from, or null to fit every shape
+     * @param cutoff the greatest score that is still of use, or NO_CUTOFF to find the exact score
+     * @return the score, or the height that went above the cutoff
+     */
+    private int timedFit(int[] order, long[] rotated, Solution parent, int cutoff){
+        if (_telemetry == null) {
+            return fitShape(order, rotated, parent, false, cutoff);
+        }
+        long start = System.nanoTime();
+        int fitted = fitShape(order, rotated, parent, false, cutoff);
+        _telemetry.recordEvaluation(System.nanoTime() - start);
+        return fitted;
+    }
+
+    /**
+     * Count whether an evaluated neighbour improved on this solution
+     * @param neighbour the neighbour
+     * @param k the neighbourhood of the neighbour
+     */
+    private void recordOutcome(Neighbour neighbour, int k){
+        if (_telemetry != null && neighbour.score != -1 && !neighbour.dominated && neighbour.score < score) {
+            _telemetry.recordImprovement(neighbour.moveType, k);
+        }
+    }
+
+    /**
+     * Take the score of a neighbour from the cache if its order has been fitted before.
+     * The cache is not thread safe so this is only called from the thread searching the neighbourhood.
+     *
+     * @param neighbour the neighbour
+     * @return whether the score was found
+     */
+    private boolean lookUpScore(Neighbour neighbour){
+        if (_cache == null) {
+            return false;
+        }
+        int cached = _cache.get(neighbour.hash);
+        if (cached == -1) {
+            return false;
+        }
+        neighbour.score = cached;
+        return true;
+    }
+
+    /**
+     * Add the score of a neighbour to the cache if it has been evaluated to its exact score
+     * @param neighbour the neighbour
+     */
+    private void storeScore(Neighbour neighbour){
+        if (_cache != null && neighbour.score != -1 && !neighbour.dominated) {
+            _cache.put(neighbour.hash, neighbour.score);
+        }
+    }
+
+    /**
+     * Copy an accepted neighbour into a solution of its own, as the neighbour is written over by the next search
+     * @param neighbour an evaluated neighbour of this solution
+     * @return the solution
+     */
+    private Solution accept(Neighbour neighbour){
+        Solution x = new Solution(_instance, neighbour.order.clone(), neighbour.rotated.clone(), _random, _pool, _cache, _telemetry,
+                neighbour.hash, _candidates);
+        x.score = neighbour.score;
+        return x;
     }
 
     public int getScore() {
@@ -38,14 +251,206 @@ public class Solution {
         return firstImprovementCost;
     }
 
+    /**
+     * Gives the amount of neighbours searched before best in neighbourhood returned a result,
+     * which is fewer than the size only if the deadline passed
+     * @return the cost from the most recent best in neighbourhood
+     */
+    public int getBestInNeighbourhoodCost() {
+        return bestInNeighbourhoodCost;
+    }
+
+    /**
+     * Check whether a deadline has passed
+     * @param deadline the value of System.nanoTime() to stop at, or NO_DEADLINE
+     * @return whether the time is at or past the deadline
+     */
+    static boolean pastDeadline(long deadline){
+        // Compare the difference so the check still works if nanoTime overflows
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Creates a solution saved in a checkpoint
+     *
+     * @param instance the shapes and sheet width
+     * @param saved the saved order, rotations and score
+     * @param random the random values of the search, with the state saved in the checkpoint
+     * @param pool the pool to search neighbourhoods with, or null to search them one at a time
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param telemetry the counters of the search, or null to not count
+     * @param candidates the amount of positions each neighbourhood tries, or 0 to try every position
+     * @return the solution
+     */
+    static Solution restore(PackingInstance instance, SearchCheckpoint.SavedSolution saved, SearchRandom random, ForkJoinPool pool,
+                            EvaluationCache cache, SearchTelemetry telemetry, int candidates){
+        int[] order = saved.order.clone();
+        long[] rotated = saved.rotated.clone();
+        Solution x = new Solution(instance, order, rotated, random, pool, cache, telemetry, hashRange(0, order.length - 1, order, rotated),
+                candidates);
+        x.score = saved.score;
+        // Keep the positions picked before the search was stopped, rather than picking them again with later random values
+        x.candidatePositions = saved.candidates == null ? null : saved.candidates.clone();
+        return x;
+    }
+
+    /**
+     * Saves the order, rotations and score of this solution, and the positions its neighbourhoods try if they have
+     * been picked, so the search can be carried on from it
+     * @return the saved solution
+     */
+    SearchCheckpoint.SavedSolution save() {
+        return new SearchCheckpoint.SavedSolution(score, _order.clone(), _rotated.clone(),
+                candidatePositions == null ? null : candidatePositions.clone());
+    }
+
+    /**
+     * @return the random values of the search this solution belongs to
+     */
+    SearchRandom getRandom() {
+        return _random;
+    }
+
+    /**
+     * @return the hash of the order and rotations, the same for any solution with the same order and rotations
+     */
+    public long getHash() {
+        return _hash;
+    }
+
+    /**
+     * Creates a solution with the order, rotations and score of a solution from another search,
+     * that searches with the random values, pool, cache, counters and candidates of this solution
+     * @param other an evaluated solution of the same shapes
+     * @return the new solution
+     */
+    public Solution withOrderOf(Solution other) {
+        Solution copy = new Solution(_instance, other._order.clone(), other._rotated.clone(), _random, _pool, _cache, _telemetry,
+                other._hash, _candidates);
+        copy.score = other.score;
+        return copy;
+    }
+
+    /**
+     * Creates a copy of this solution that shares nothing with its search, so it can be used on another thread while
+     * the search carries on. The copy has no pool, cache or counters, and its random values start 2^64 values ahead
+     * of the search's, so taking it does not change the values the search draws.
+     * @return the new solution
+     */
+    public Solution snapshot() {
+        SearchRandom random = new SearchRandom(_random.getState());
+        random.split();
+        Solution copy = new Solution(_instance, _order.clone(), _rotated.clone(), random, null, null, null, _hash, _candidates);
+        copy.score = score;
+        return copy;
+    }
+
+    /**
+     * @return the amount of shapes in the solution
+     */
+    public int size() {
+        return _order.length;
+    }
+
+    /**
+     * Creates the shapes in the order they are fitted, with the dimensions they are fitted with
+     * @return a new array of shapes
+     */
     public Shape[] getOrder(){
-        return _shapesOrder;
+        Shape[] shapes = new Shape[_order.length];
+        for (int i = 0; i < _order.length; i++) {
+            shapes[i] = _instance.getShape(_order[i], isRotated(_rotated, _order[i]));
+        }
+        return shapes;
     }
 
+    /**
+     * @param i index in the order
+     * @return the width the shape at i is fitted with
+     */
+    public int getWidthAt(int i) {
+        return widthAt(_order, _rotated, i);
+    }
+
+    /**
+     * @param i index in the order
+     * @return the height the shape at i is fitted with
+     */
+    public int getHeightAt(int i) {
+        return heightAt(_order, _rotated, i);
+    }
+
+    /**
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes
+     * @param i index in the order
+     * @return the width the shape at i is fitted with
+     */
+    private int widthAt(int[] order, long[] rotated, int i) {
+        return _instance.getWidth(order[i], isRotated(rotated, order[i]));
+    }
+
+    /**
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes
+     * @param i index in the order
+     * @return the height the shape at i is fitted with
+     */
+    private int heightAt(int[] order, long[] rotated, int i) {
+        return _instance.getHeight(order[i], isRotated(rotated, order[i]));
+    }
+
+    /**
+     * Creates the drawing dimensions of each shape, fitting the shapes again if the placements were not recorded
+     * @return the drawing dimensions in the order the shapes were added
+     */
     public DrawingDimensions[] getDrawDimensions() {
+        recordPlacements();
+        DrawingDimensions[] toBeDrawn = new DrawingDimensions[_order.length];
+        for (int p = 0; p < toBeDrawn.length; p++) {
+            int shape = _order[placedIndex[p]];
+            toBeDrawn[p] = new DrawingDimensions(placedX[p], placedY[p], _instance.getShape(shape, isRotated(_rotated, shape)));
+        }
         return toBeDrawn;
     }
 
+    /**
+     * Fits the shapes again recording each placement, if they have not been recorded already
+     */
+    private void recordPlacements() {
+        if (placedIndex != null) {
+            return;
+        }
+        placedX = new int[_order.length];
+        placedY = new int[_order.length];
+        placedIndex = new int[_order.length];
+        xAfter = new int[_order.length];
+        furthestPlaced = new int[_order.length];
+        widestMissedGap = new int[_order.length];
+        fitShape(_order, _rotated, null, true, NO_CUTOFF);
+    }
+
+    /**
+     * Pick the positions each neighbourhood of this solution tries, if they have not been picked already
+     * @return the positions in the order they are tried, or null to try every position from 0 up
+     */
+    private int[] candidatePositions() {
+        if (_candidates <= 0 || _candidates >= _order.length) {
+            return null;
+        }
+        if (candidatePositions == null) {
+            recordPlacements();
+            int[] widths = new int[_order.length];
+            int[] heights = new int[_order.length];
+            for (int i = 0; i < _order.length; i++) {
+                widths[i] = getWidthAt(i);
+                heights[i] = getHeightAt(i);
+            }
+            candidatePositions = CandidateNeighbourhoods.select(_candidates, _boxWidth, placedX, placedY, placedIndex, widths, heights, _random);
+        }
+        return candidatePositions;
+    }
+
     /**
      * Pick random solution from kth neighbourhood around x
      *
@@ -54,10 +459,11 @@ public class Solution {
      */
     public Solution Shake(int k){
         // Pick a random index of a shape in the solution
-        int i = rand.nextInt(_shapesOrder.length);
+        int i = _random.nextInt(_order.length);
         // Use that random index to get a shape order of kth neighbourhood
-        Shape[] neighbourShapes = getNeighbour(i, k);
-        return new Solution(neighbourShapes, _boxWidth, _seed);
+        Neighbour neighbour = EvaluationScratch.get().neighbours(1)[0];
+        getNeighbour(i, k, NO_CUTOFF, neighbour);
+        return accept(neighbour);
     }
 
     /**
@@ -67,18 +473,37 @@ public class Solution {
      * @return the same solution or the first improvement in the neighbours
      */
     public Solution FirstImprovment(int k) {
-        Solution xNew;
+        return FirstImprovment(k, NO_DEADLINE);
+    }
+
+    /**
+     * Finds the first solution that improves in the neighbourhood, stopping early if the deadline passes
+     *
+     * @param k the neighbour index
+     * @param deadline the value of System.nanoTime() to stop searching at, or NO_DEADLINE
+     * @return the same solution or the first improvement in the neighbours
+     */
+    public Solution FirstImprovment(int k, long deadline) {
+        if (_pool != null) {
+            return parallelFirstImprovement(k, deadline);
+        }
+        // Each neighbour is written over the last, only an improvement is kept
+        Neighbour xNew = EvaluationScratch.get().neighbours(1)[0];
+        int[] positions = candidatePositions();
         // Create neighbours of solution that have k difference
-        int length = _shapesOrder.length;
-        for (int i = 0; i < length; i++) {
-            Shape[] newOrder = getNeighbour(i, k);
-            // Add the new solution
-            xNew = new Solution(newOrder, _boxWidth, _seed);
+        int length = positions == null ? _order.length : positions.length;
+        for (int j = 0; j < length; j++) {
+            if (pastDeadline(deadline)) {
+                firstImprovementCost = j;
+                return this;
+            }
+            // Add the new solution, only a score lower than this one is of use
+            getNeighbour(positions == null ? j : positions[j], k, score - 1, xNew);
 
             // If the new solution is better then return it
-            if (xNew.getScore() < this.getScore()) {
-                firstImprovementCost = i + 1;
-                return xNew;
+            if (xNew.score < this.getScore()) {
+                firstImprovementCost = j + 1;
+                return accept(xNew);
             }
         }
 
@@ -94,36 +519,206 @@ public class Solution {
      * @return the best solution out of the neighbours
      */
     public Solution getBestInNeighborhood(int k) {
-        Solution xNew, xBest = null;
+        return getBestInNeighborhood(k, NO_DEADLINE);
+    }
+
+    /**
+     * Finds the best solution in the neighbourhood, stopping early if the deadline passes
+     *
+     * @param k the neighbour index
+     * @param deadline the value of System.nanoTime() to stop searching at, or NO_DEADLINE
+     * @return the best solution out of the neighbours searched, or the same solution if none were
+     */
+    public Solution getBestInNeighborhood(int k, long deadline) {
+        if (_pool != null) {
+            return parallelBestInNeighborhood(k, deadline);
+        }
+        // Two neighbours take turns, each new one is written over the one that is not the best so far
+        Neighbour[] scratch = EvaluationScratch.get().neighbours(2);
+        Neighbour xNew = scratch[0], xBest = null;
+        int[] positions = candidatePositions();
 
         // Create neighbours of solution that have k difference
-        int length = _shapesOrder.length;
-        for (int i = 0; i < length; i++) {
-            Shape[] newOrder = getNeighbour(i, k);
-            // Add the new solution
-            xNew = new Solution(newOrder, _boxWidth, _seed);
+        int length = positions == null ? _order.length : positions.length;
+        int j = 0;
+        for (; j < length && !pastDeadline(deadline); j++) {
+            // Add the new solution, only a score lower than the best so far is of use
+            getNeighbour(positions == null ? j : positions[j], k, xBest == null ? NO_CUTOFF : xBest.score - 1, xNew);
 
-            if (xBest == null || xNew.getScore() < xBest.getScore()) {
+            if (xBest == null || xNew.score < xBest.score) {
+                Neighbour spare = xBest == null ? scratch[1] : xBest;
                 xBest = xNew;
+                xNew = spare;
             }
         }
 
-        return xBest;
+        bestInNeighbourhoodCost = j;
+        return xBest == null ? this : accept(xBest);
     }
 
     /**
-     * Finds the specified neighbour of this  solution
+     * Finds the first solution that improves in the neighbourhood, evaluating chunks of neighbours in parallel.
+     * Every neighbour in a chunk is evaluated but the lowest improving index is returned, and the random values
+     * are put back to where they were after creating it, so the result and the rest of the search are the same
+     * as searching one at a time.
+     *
+     * @param k the neighbour index
+     * @param deadline the value of System.nanoTime() to stop searching at, checked between chunks
+     * @return the same solution or the first improvement in the neighbours
+     */
+    private Solution parallelFirstImprovement(int k, long deadline) {
+        int[] positions = candidatePositions();
+        int length = positions == null ? _order.length : positions.length;
+        int chunkSize = _pool.getParallelism();
+        EvaluationScratch scratch = EvaluationScratch.get();
+        Neighbour[] chunk = scratch.neighbours(chunkSize);
+        // The state of the random values after creating each neighbour of the chunk
+        long[] randomAfter = scratch.randomStates(chunkSize);
+        for (int start = 0; start < length; start += chunkSize) {
+            if (pastDeadline(deadline)) {
+                firstImprovementCost = start;
+                return this;
+            }
+            int end = Math.min(start + chunkSize, length);
+            int first = start;
+            // Create the neighbours in order so random moves use the same random values
+            for (int i = start; i < end; i++) {
+                createNeighbour(positions == null ? i : positions[i], k, chunk[i - start]);
+                _random.saveState(randomAfter, i - start);
+                lookUpScore(chunk[i - start]);
+            }
+            int improved = _pool.submit(() -> IntStream.range(0, end - first).parallel()
+                    .filter(i -> {
+                        if (chunk[i].score == -1) {
+                            evaluate(chunk[i], score - 1);
+                        }
+                        return chunk[i].score < this.getScore();
+                    })
+                    .findFirst()
+                    .orElse(-1)).join();
+            // Searching one at a time would never have reached the neighbours after the improvement,
+            // so only those up to it are stored and counted
+            int reached = improved == -1 ? end - start : improved + 1;
+            for (int i = 0; i < reached; i++) {
+                storeScore(chunk[i]);
+                recordOutcome(chunk[i], k);
+            }
+
+            // If a new solution is better then return the first one
+            if (improved != -1) {
+                // Searching one at a time would have stopped after creating the improvement,
+                // so the neighbours created after it give back their random values
+                _random.restoreState(randomAfter, improved);
+                firstImprovementCost = start + improved + 1;
+                return accept(chunk[improved]);
+            }
+        }
+
+        firstImprovementCost = length;
+        // With no better solution found return the same solution
+        return this;
+    }
+
+    /**
+     * Finds the best solution in the neighbourhood, evaluating chunks of neighbours in parallel.
+     * Ties go to the lowest index so the result is the same as searching one at a time.
+     *
+     * @param k the neighbour index
+     * @param deadline the value of System.nanoTime() to stop searching at
+     * @return the best solution out of the neighbours searched, or the same solution if none were
+     */
+    private Solution parallelBestInNeighborhood(int k, long deadline) {
+        int[] positions = candidatePositions();
+        int length = positions == null ? _order.length : positions.length;
+        // Enough neighbours in each chunk to keep every thread busy, with one more to hold the best so far
+        int chunkSize = _pool.getParallelism() * 8;
+        Neighbour[] chunk = EvaluationScratch.get().neighbours(chunkSize + 1);
+        Neighbour xBest = chunk[chunkSize];
+        boolean found = false;
+        // The lowest score found so far by any thread, a neighbour that cannot reach it stops early.
+        // A neighbour that equals it is still fitted so ties go to the lowest index.
+        AtomicInteger lowest = new AtomicInteger(NO_CUTOFF);
+        bestInNeighbourhoodCost = 0;
+        for (int start = 0; start < length && !pastDeadline(deadline); start += chunkSize) {
+            int size = Math.min(chunkSize, length - start);
+            // Create the neighbours in order so random moves use the same random values
+            for (int i = 0; i < size; i++) {
+                createNeighbour(positions == null ? start + i : positions[start + i], k, chunk[i]);
+                if (lookUpScore(chunk[i])) {
+                    lowest.accumulateAndGet(chunk[i].score, Math::min);
+                }
+            }
+            // Neighbours reached after the deadline are left unevaluated and are not compared
+            int best = _pool.submit(() -> IntStream.range(0, size).parallel()
+                    .filter(i -> {
+                        if (chunk[i].score == -1 && !pastDeadline(deadline)) {
+                            evaluate(chunk[i], lowest.get());
+                            if (!chunk[i].dominated) {
+                                lowest.accumulateAndGet(chunk[i].score, Math::min);
+                            }
+                        }
+                        return chunk[i].score != -1 && !chunk[i].dominated;
+                    })
+                    .reduce((a, b) -> chunk[b].score < chunk[a].score ? b : a)
+                    .orElse(-1)).join();
+            for (int i = 0; i < size; i++) {
+                if (chunk[i].score != -1) {
+                    bestInNeighbourhoodCost++;
+                }
+                storeScore(chunk[i]);
+                recordOutcome(chunk[i], k);
+            }
+            // An earlier chunk keeps the best if this one only ties it
+            if (best != -1 && (!found || chunk[best].score < xBest.score)) {
+                xBest.copy(chunk[best]);
+                found = true;
+            }
+        }
+        return found ? accept(xBest) : this;
+    }
+
+    /**
+     * Finds the specified neighbour of this solution, stopping its evaluation once its score is certain to be above a cutoff
      *
      * @param i index of the shape to be moved
      * @param k amount of positions to move up
-     * @return a new array of shapes
+     * @param cutoff the greatest score that is still of use, or NO_CUTOFF to find the exact score
+     * @param neighbour the neighbour to write over, which is dominated if its evaluation stopped early
+     */
+    private void getNeighbour(int i, int k, int cutoff, Neighbour neighbour) {
+        createNeighbour(i, k, neighbour);
+        if (!lookUpScore(neighbour)) {
+            evaluate(neighbour, cutoff);
+            storeScore(neighbour);
+        }
+        recordOutcome(neighbour, k);
+    }
+
+    /**
+     * Creates the specified neighbour of this solution without evaluating it
+     *
+     * @param i index of the shape to be moved
+     * @param k amount of positions to move up
+     * @param neighbour the neighbour to write over
      */
-    private Shape[] getNeighbour(int i, int k) {
+    private void createNeighbour(int i, int k, Neighbour neighbour) {
+        // The neighbour resumes from the placements of this solution
+        recordPlacements();
+        long start = _telemetry == null ? 0 : System.nanoTime();
+        neighbour.copy(_order, _rotated, _hash);
+        int[] newOrder = neighbour.order;
+        long[] newRotated = neighbour.rotated;
+        long newHash = _hash;
+        int newMoveType;
         // After k iterates through each shape do a different neighbourhood change
         int kLocal = (int)(Math.ceil(k / moveTypes));
+        // Bounded neighbourhoods space out the move sizes, kept below the amount of shapes so no move wraps around
+        if (_candidates > 0) {
+            kLocal = Math.max(1, Math.min(CandidateNeighbourhoods.moveSize(kLocal), _order.length - 1));
+        }
         // Attempt to rotate k number of shapes from i up
-        if (k % moveTypes == 1 && kLocal <= _shapesOrder.length) {
-            Shape[] newOrder = _shapesOrder.clone();
+        if (k % moveTypes == 1 && kLocal <= newOrder.length) {
+            newMoveType = SearchTelemetry.ROTATE;
             for(int j = 0; j < kLocal; j++) {
                 // Calculate next shape's index
                 int index = i + j;
@@ -131,97 +726,241 @@ public class Solution {
                     index -= newOrder.length;
                 }
                 // Rotate shape at index
-                newOrder = rotateShape(index, newOrder);
+                newHash = rotateShape(index, newOrder, newRotated, newHash);
             }
-            return newOrder;
-        }else if (k % moveTypes == 2 && kLocal < _shapesOrder.length) {
+        }else if (k % moveTypes == 2 && kLocal < newOrder.length) {
             // Push shape at i, k positions up the queue
-            return moveShapeByK(i, kLocal, _shapesOrder);
+            newMoveType = SearchTelemetry.MOVE_BY_K;
+            newHash = moveShapeByK(i, kLocal, newOrder, newRotated, newHash);
         } else {
             // K shapes moved and rotated at random
-            return moveKShapes(i, kLocal);
+            newMoveType = SearchTelemetry.MOVE_K_SHAPES;
+            newHash = moveKShapes(i, kLocal, newOrder, newRotated, newHash);
+        }
+        neighbour.hash = newHash;
+        neighbour.moveType = newMoveType;
+        if (_telemetry != null) {
+            // A neighbour with the same hash as this solution is the same order and rotations
+            _telemetry.recordNeighbour(newMoveType, k, System.nanoTime() - start, newHash == _hash);
         }
-
     }
 
     /**
      * Rotate the shape at index i if possible
      * @param i index of the shape to rotate
-     * @return a new list of shapes
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes to change
+     * @param hash the hash of the order before the rotation
+     * @return the hash of the order after the rotation
      */
-    private Shape[] rotateShape(int i, Shape[] shapesOrder){
-
-        // Copy current shapes
-        Shape[] newShapes = shapesOrder.clone();
-
-        int newWidth = newShapes[i].getHeight();
+    private long rotateShape(int i, int[] order, long[] rotated, long hash){
+        int shape = order[i];
+        boolean wasRotated = isRotated(rotated, shape);
+        int newWidth = _instance.getHeight(shape, wasRotated);
         // If the rotated shape would not fit on the sheet then do not rotate it
         if(newWidth > _boxWidth){
-            return newShapes;
+            return hash;
         }
 
-        int newHeight = newShapes[i].getWidth();
-
-        // Create a copy of the old shape at i but with swapped dimensions
-        newShapes[i] = new Shape(newShapes[i].getId(), newWidth, newHeight);
-        return newShapes;
+        // Swap the dimensions of the shape at i
+        rotated[shape >>> 6] ^= 1L << shape;
+        return hash ^ EvaluationCache.hashOf(i, shape, wasRotated) ^ EvaluationCache.hashOf(i, shape, !wasRotated);
     }
 
     /**
      * Move a shape up the queue to be fitted by a certain amount
      * @param i index of the shape to be moved
      * @param k amount of positions to move up
-     * @return a new order of shapes
+     * @param order the order of shapes to change
+     * @param rotated the bitset of rotated shapes
+     * @param hash the hash of the order before the move
+     * @return the hash of the order after the move
      */
-    private Shape[] moveShapeByK(int i, int k, Shape[] shapesOrder){
+    private long moveShapeByK(int i, int k, int[] order, long[] rotated, long hash){
         int newPosition = i - k;
         // If the new position is less than 0
         if(newPosition < 0) {
             // Then add to end of queue
-            newPosition += (shapesOrder.length - 1);
+            newPosition += (order.length - 1);
         }
-        // Create the new shape array
 
-        List<Shape> orderList = new LinkedList<>(Arrays.asList(shapesOrder));
-        orderList.remove(i);
-        orderList.add(newPosition, shapesOrder[i]);
+        // Only the positions between the two are changed so only they are hashed again
+        int low = Math.min(i, newPosition), high = Math.max(i, newPosition);
+        hash ^= hashRange(low, high, order, rotated);
 
-        return orderList.toArray(new Shape[shapesOrder.length]);
+        // Shift the shapes between the two positions over the gap left by the moved shape
+        int shape = order[i];
+        if (newPosition < i) {
+            System.arraycopy(order, newPosition, order, newPosition + 1, i - newPosition);
+        } else {
+            System.arraycopy(order, i + 1, order, i, newPosition - i);
+        }
+        order[newPosition] = shape;
+        return hash ^ hashRange(low, high, order, rotated);
+    }
+
+    /**
+     * Hash the shapes in part of an order
+     * @param low the first index
+     * @param high the last index
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes
+     * @return the hashes of each position combined
+     */
+    private static long hashRange(int low, int high, int[] order, long[] rotated){
+        long hash = 0;
+        for (int p = low; p <= high; p++) {
+            hash ^= EvaluationCache.hashOf(p, order[p], isRotated(rotated, order[p]));
+        }
+        return hash;
     }
 
     /**
      * Move and rotate an amount of shapes to random positions of the queue
      * @param i index of first shape to move
      * @param k amount of shapes to move
-     * @return a new configuration of shapes
+     * @param order the order of shapes to change
+     * @param rotated the bitset of rotated shapes to change
+     * @param hash the hash of the order before the moves
+     * @return the hash of the order after the moves
      */
-    private Shape[] moveKShapes(int i, int k){
-
-        Shape[] newOrder = _shapesOrder.clone();
+    private long moveKShapes(int i, int k, int[] order, long[] rotated, long hash){
         for(int j = 0; j < k; j++){
             // Rotate each shape at random
-            if(rand.nextBoolean()){
-                newOrder = rotateShape(i, newOrder);
+            if(_random.nextBoolean()){
+                hash = rotateShape(i, order, rotated, hash);
             }
             // Get random movement amount
-            int move = rand.nextInt(newOrder.length - 1) + 1;
-            newOrder = moveShapeByK(i, move, newOrder);
+            int move = _random.nextInt(order.length - 1) + 1;
+            hash = moveShapeByK(i, move, order, rotated, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * @param rotated a bitset of rotated shapes
+     * @param shape index of the shape
+     * @return whether the shape is rotated
+     */
+    private static boolean isRotated(long[] rotated, int shape){
+        return (rotated[shape >>> 6] & (1L << shape)) != 0;
+    }
+
+    /**
+     * @param length the amount of shapes
+     * @return the shape indexes in ascending order
+     */
+    private static int[] identityOrder(int length){
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
         }
-        return newOrder;
+        return order;
     }
 
     /**
-     * Fits shapes onto the sheet
-     * @param shapesOrder the list of shapes in order to be fitted
-     * @return the drawing dimensions of teh added shapes
+     * Find the first index where a solution and an order hold a different shape or the shape is rotated differently.
+     * @param a a solution
+     * @param order an order of the same shapes
+     * @param rotated the bitset of rotated shapes of the order
+     * @return the first differing index, or the length if the orders are the same
      */
-    private DrawingDimensions[] fitShape(Shape[] shapesOrder) {
+    private static int firstDifference(Solution a, int[] order, long[] rotated){
+        int i = 0;
+        while (i < a._order.length && a._order[i] == order[i]
+                && isRotated(a._rotated, a._order[i]) == isRotated(rotated, order[i])) {
+            i++;
+        }
+        return i;
+    }
 
-        int x = 0, toBeDrawnIndex = 0, passes = 0;
-        DrawingDimensions[] toBeDrawn = new DrawingDimensions[shapesOrder.length];
+    /**
+     * Find how many of the parent's placements are also made when fitting an order that first differs at an index.
+     * A placement can be reused if every shape placed up to it came from before that index,
+     * and no changed shape would have fitted into any gap that was passed over.
+     * @param parent the solution the order was made from
+     * @param firstChange the first index in the order that differs from the parent
+     * @param widths the width of the shape at each index in the order
+     * @return the amount of placements to reuse
+     */
+    private static int reusablePlacements(Solution parent, int firstChange, int[] widths){
+        // Find the narrowest of the changed shapes
+        int narrowest = Integer.MAX_VALUE;
+        for (int i = firstChange; i < parent._order.length; i++) {
+            narrowest = Math.min(narrowest, widths[i]);
+        }
+        // Both records only increase so binary search for the last placement that can be reused
+        int low = 0, high = parent._order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (parent.furthestPlaced[mid] < firstChange && parent.widestMissedGap[mid] < narrowest) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fits shapes onto the sheet in an order, which is the order of this solution if the placements are recorded.
+     * The arrays it works in are taken from the scratch space of the thread so fitting makes no new objects.
+     * @param order the order of shapes
+     * @param rotated the bitset of rotated shapes
+     * @param parent a solution with recorded placements that are reused while the orders match, or null to start from an empty sheet
+     * @param record whether to record each placement
+     * @param cutoff the greatest score that is still of use, fitting stops once a shape goes above it
+     * @return the largest y value of the added shapes, or the y value that went above the cutoff
+     */
+    private int fitShape(int[] order, long[] rotated, Solution parent, boolean record, int cutoff) {
+
+        int x = 0, placements = 0, passes = 0, furthestIndex = -1, widestGap = -1;
+        // The largest y value of the added shapes so far, which never goes down as shapes are added
+        int top = 0;
+        EvaluationScratch scratch = EvaluationScratch.get();
+        // Record the y values along the top of all added shapes
+        Skyline yBottomLine = scratch.skyline(_boxWidth);
 
-        // Create a list of the shapes to be added so they can be removed from the list as they get added
-        List<Shape> toAdd = new ArrayList<>(Arrays.asList(shapesOrder));
+        // The width of the shape at each index in the order
+        int[] widths = scratch.widths(order.length);
+        for (int i = 0; i < order.length; i++) {
+            widths[i] = widthAt(order, rotated, i);
+        }
+        boolean[] placed = null;
+
+        if (parent != null) {
+            int reused = reusablePlacements(parent, firstDifference(parent, order, rotated), widths);
+            if (reused > 0) {
+                placed = scratch.placed(order.length);
+                // Replay the parent's placements onto yBottomLine
+                for (int p = 0; p < reused; p++) {
+                    int orderIndex = parent.placedIndex[p];
+                    int left = parent.placedX[p];
+                    int right = left + parent.getWidthAt(orderIndex);
+                    int newY = parent.placedY[p] + parent.getHeightAt(orderIndex);
+                    yBottomLine.place(left, right, newY);
+                    top = Math.max(top, newY);
+                    placed[orderIndex] = true;
+                }
+                if (record) {
+                    System.arraycopy(parent.placedX, 0, placedX, 0, reused);
+                    System.arraycopy(parent.placedY, 0, placedY, 0, reused);
+                    System.arraycopy(parent.placedIndex, 0, placedIndex, 0, reused);
+                    System.arraycopy(parent.xAfter, 0, xAfter, 0, reused);
+                    System.arraycopy(parent.furthestPlaced, 0, furthestPlaced, 0, reused);
+                    System.arraycopy(parent.widestMissedGap, 0, widestMissedGap, 0, reused);
+                }
+
+                // Continue from the state the parent was in after its last reused placement
+                placements = reused;
+                x = parent.xAfter[reused - 1];
+                furthestIndex = parent.furthestPlaced[reused - 1];
+                widestGap = parent.widestMissedGap[reused - 1];
+                passes = 1;
+            }
+        }
+        // Index the shapes still to be added by their position in the order so the first that fits is found quickly
+        RemainingShapes toAdd = scratch.remaining(widths, order.length, placed);
 
         // Until all shapes are added
         while (0 < toAdd.size()) {
@@ -231,11 +970,8 @@ public class Solution {
 
                 // If x is in the bounds then find next y level to add the shape to
                 if (x < _boxWidth && x >= 0) {
-                    int yOld = yBottomLine[x];
                     // Move across until on a new y level
-                    while (x < _boxWidth && x >= 0 && yOld == yBottomLine[x]) {
-                        x++;
-                    }
+                    x = yBottomLine.nextLevel(x);
                 }
                 // Next if statement should still happen if the above if statement occurs as the x could move out of bounds
 
@@ -245,110 +981,108 @@ public class Solution {
                 }
             }
 
-            // For each shape to still add
-            for (int i = 0; i < toAdd.size(); i++) {
+            // Calculate width to fit shapes into
+            int widthToFitIn = yBottomLine.fitWidth(x);
 
-                // Get the shape's dimensions
-                int width = toAdd.get(i).getWidth();
-                int height = toAdd.get(i).getHeight();
+            // After enough passes the first shape still to add is placed whether it fits or not,
+            // otherwise take the first shape in the order that can fit
+            int next = passes > 8 ? toAdd.first() : toAdd.firstFitting(widthToFitIn);
+            boolean added = next != -1;
+            if (added) {
 
-                // Calculate width to fit shape into
-                int widthToFitIn = 0;
-                for (int j = x; j < _boxWidth && yBottomLine[j] <= yBottomLine[x]; j++) {
-                    widthToFitIn++;
-                }
+                // Get the shape's dimensions
+                int width = widths[next];
+                int height = heightAt(order, rotated, next);
 
                 // If the shape can fit
                 if (width <= widthToFitIn) {
 
                     // Add the shape
-                    toBeDrawn[toBeDrawnIndex] = new DrawingDimensions(x, yBottomLine[x], toAdd.get(i));
-                    toBeDrawnIndex++;
-                    int newY = yBottomLine[x] + height;
+                    int placedAtX = x, placedAtY = yBottomLine.heightAt(x);
+                    int newY = placedAtY + height;
 
 
                     // Adjust yBottomLine
-                    for (int whereShapePlaced = x; whereShapePlaced < x + width; whereShapePlaced++) {
-                        yBottomLine[whereShapePlaced] = newY;
-                    }
+                    yBottomLine.place(x, x + width, newY);
+                    top = Math.max(top, newY);
 
                     // Adjust x
                     x += width;
 
                     // Move x back to fill in gaps
-                    while (x > 0 && x < _boxWidth) {
-                        if (yBottomLine[x] < yBottomLine[x - 1]) {
-                            break;
-                        }
-                        x--;
-                    }
-
+                    x = yBottomLine.moveBack(x);
 
-                    // A shape has been added so reset passes counter
-                    passes = 0;
 
-                    // Remove shape from the list to add
-                    toAdd.remove(i);
-                    // Break out of the loop of searching through each shape
-                    break;
+                    // Record the checkpoint for this placement
+                    furthestIndex = Math.max(furthestIndex, next);
+                    if (record) {
+                        recordPlacement(placements, placedAtX, placedAtY, next, x, furthestIndex, widestGap);
+                    }
                 }
                 // Else if can't find a fit then do a local search for best placement
-                else if (passes > 8) {
-                    int bestX = 0;
+                else {
+                    int bestX = yBottomLine.lowestLeft(width);
                     int lowestMaxY = -1;
-                    for (int left = 0; left < _boxWidth - width; left++) {
-                        int yMax = 0;
-                        for (int xValue = left; xValue < left + width; xValue++) {
-                            if (yBottomLine[xValue] > yMax) {
-                                yMax = yBottomLine[xValue];
-                            }
-                        }
-                        if (lowestMaxY == -1 || lowestMaxY > yMax) {
-                            lowestMaxY = yMax;
-                            bestX = left;
-                        }
-                    }
-                    // Add the shape
-                    toBeDrawn[toBeDrawnIndex] = new DrawingDimensions(bestX, lowestMaxY, toAdd.get(i));
-                    toBeDrawnIndex++;
-                    // Adjust yBottomLine
-                    for (int whereShapePlaced = bestX; whereShapePlaced < bestX + width; whereShapePlaced++) {
-                        yBottomLine[whereShapePlaced] = lowestMaxY + height;
+                    // If there was no position to try then the shape goes at 0
+                    if (bestX == -1) {
+                        bestX = 0;
+                    } else {
+                        lowestMaxY = yBottomLine.maxHeight(bestX, bestX + width);
                     }
+                    // Add the shape and adjust yBottomLine
+                    yBottomLine.place(bestX, bestX + width, lowestMaxY + height);
+                    top = Math.max(top, lowestMaxY + height);
 
                     // Adjust x
                     x = bestX + width;
 
-                    // A shape has been added so reset passes counter
-                    passes = 0;
-
-                    // Remove shape from the list to add
-                    toAdd.remove(i);
-                    // Break out of the loop of searching through each shape
-                    break;
+                    // Record the checkpoint for this placement
+                    furthestIndex = Math.max(furthestIndex, next);
+                    if (record) {
+                        recordPlacement(placements, bestX, lowestMaxY, next, x, furthestIndex, widestGap);
+                    }
                 }
+                placements++;
+
+                // A shape has been added so reset passes counter
+                passes = 0;
+
+                // Remove shape from the shapes to add
+                toAdd.remove(next);
+            }
+
+            // If nothing was added then no remaining shape fits the gap
+            if (!added) {
+                widestGap = Math.max(widestGap, widthToFitIn);
             }
 
             passes++;
+
+            // Stop once this order cannot score within the cutoff
+            if (top > cutoff) {
+                return top;
+            }
         }
-        return toBeDrawn;
+        return yBottomLine.getLargestY();
     }
 
     /**
-     * Find the largest y value which a shape touches.
-     *
-     * @return the greatest y value.
-     */
-    private int getLargestY(){
-        int yLargest = 0;
-        // Find the greatest value in yBottomLine
-        for (int y: yBottomLine) {
-            if(y > yLargest) {
-                yLargest = y;
-            }
-        }
-        // Calculate and return space used
-        return yLargest;
+     * Record the state of fitShape after a shape has been placed
+     * @param placement how many shapes were placed before this one
+     * @param placedAtX the x the shape was placed at
+     * @param placedAtY the y the shape was placed at
+     * @param orderIndex the index in the order of the placed shape
+     * @param x the value of x once the shape is placed
+     * @param furthestIndex the highest index in the order placed so far
+     * @param widestGap the widest gap no shape has fitted into so far
+     */
+    private void recordPlacement(int placement, int placedAtX, int placedAtY, int orderIndex, int x, int furthestIndex, int widestGap){
+        placedX[placement] = placedAtX;
+        placedY[placement] = placedAtY;
+        placedIndex[placement] = orderIndex;
+        xAfter[placement] = x;
+        furthestPlaced[placement] = furthestIndex;
+        widestMissedGap[placement] = widestGap;
     }
 
 }
@@ -0,0 +1,81 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import javax.imageio.ImageIO;
+
+public class SolutionExporter {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Writes the fitted shapes to a file instead of showing them in a window, at the same scale and in the same
+    // colours as GraphicalDisplay. SVG is written as text with no use of AWT. PNG is drawn on an image in memory,
+    // which works with or without a window system and leaves the headless setting of the JVM alone so a window
+    // can still be shown afterwards.
+
+    /**
+     * @param boxWidth the width of the sheet
+     * @return the amount to enlarge the drawing by, the same as GraphicalDisplay
+     */
+    private static int enlargement(int boxWidth){
+        return boxWidth < 100 ? 10 : 2;
+    }
+
+    /**
+     * Write the shapes to an SVG file, one shape at a time
+     * @param file the file to write
+     * @param boxWidth the width of the sheet
+     * @param boxHeight the height of the sheet to draw
+     * @param toBeDrawn the shapes and where they were placed
+     * @throws IOException if the file could not be written
+     */
+    public static void writeSvg(String file, int boxWidth, int boxHeight, DrawingDimensions[] toBeDrawn) throws IOException {
+        int enl = enlargement(boxWidth);
+        try (Writer out = Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + boxWidth * enl + "\" height=\"" + boxHeight * enl
+                    + "\" font-family=\"sans-serif\" font-size=\"12\">\n");
+            out.write("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+            for (DrawingDimensions d : toBeDrawn) {
+                int x = d.x * enl;
+                int y = d.y * enl;
+                out.write("<rect x=\"" + x + "\" y=\"" + y + "\" width=\"" + d.shape.getWidth() * enl
+                        + "\" height=\"" + d.shape.getHeight() * enl + "\" fill=\"cyan\" stroke=\"black\"/>");
+                out.write("<text x=\"" + (x + 1) + "\" y=\"" + (y + 12) + "\">" + escape(d.shape.getId()) + "</text>\n");
+            }
+            out.write("</svg>\n");
+        }
+    }
+
+    /**
+     * Draw the shapes to a PNG file
+     * @param file the file to write
+     * @param boxWidth the width of the sheet
+     * @param boxHeight the height of the sheet to draw
+     * @param toBeDrawn the shapes and where they were placed
+     * @throws IOException if the file could not be written
+     */
+    public static void writePng(String file, int boxWidth, int boxHeight, DrawingDimensions[] toBeDrawn) throws IOException {
+        int enl = enlargement(boxWidth);
+        // Leave room for the outline of shapes along the right and bottom edges
+        BufferedImage image = new BufferedImage(boxWidth * enl + 1, boxHeight * enl + 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            for (DrawingDimensions d : toBeDrawn) {
+                d.draw(g, enl);
+            }
+        } finally {
+            g.dispose();
+        }
+        ImageIO.write(image, "png", Paths.get(file).toFile());
+    }
+
+    private static String escape(String text){
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,115 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CandidateNeighbourhoodsTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void moveSizesGrowByAboutHalf() {
+        int[] expected = {1, 2, 3, 4, 6, 9, 13};
+        for (int level = 1; level <= expected.length; level++) {
+            assertEquals(expected[level - 1], CandidateNeighbourhoods.moveSize(level), "level " + level);
+        }
+    }
+
+    @Test
+    void levelsStopBeforeTheMoveCoversEveryShape() {
+        assertEquals(1, CandidateNeighbourhoods.levels(1));
+        assertEquals(1, CandidateNeighbourhoods.levels(2));
+        assertEquals(2, CandidateNeighbourhoods.levels(3));
+        assertEquals(4, CandidateNeighbourhoods.levels(5));
+        assertEquals(4, CandidateNeighbourhoods.levels(6));
+        assertEquals(5, CandidateNeighbourhoods.levels(7));
+        assertEquals(6, CandidateNeighbourhoods.levels(13));
+        assertEquals(7, CandidateNeighbourhoods.levels(14));
+        for (int shapes = 2; shapes < 1000; shapes++) {
+            int levels = CandidateNeighbourhoods.levels(shapes);
+            assertTrue(CandidateNeighbourhoods.moveSize(levels) < shapes, "shapes " + shapes);
+            assertTrue(CandidateNeighbourhoods.moveSize(levels + 1) >= shapes, "shapes " + shapes);
+        }
+    }
+
+    @Test
+    void selectPicksDistinctPositionsInTheOrder() {
+        Random layouts = new Random(7);
+        for (int test = 0; test < 200; test++) {
+            int size = 1 + layouts.nextInt(40);
+            int boxWidth = 5 + layouts.nextInt(20);
+            int[] widths = new int[size];
+            int[] heights = new int[size];
+            int[] placedX = new int[size];
+            int[] placedY = new int[size];
+            int[] placedIndex = shuffled(size, layouts);
+            for (int p = 0; p < size; p++) {
+                widths[p] = 1 + layouts.nextInt(boxWidth);
+                heights[p] = 1 + layouts.nextInt(10);
+                placedX[p] = layouts.nextInt(boxWidth);
+                // The fallback can place a shape at a y of -1
+                placedY[p] = layouts.nextInt(30) - 1;
+            }
+            int count = 1 + layouts.nextInt(size + 5);
+            int[] candidates = CandidateNeighbourhoods.select(count, boxWidth, placedX, placedY, placedIndex,
+                    widths, heights, new SearchRandom(test));
+
+            assertEquals(Math.min(count, size), candidates.length);
+            boolean[] seen = new boolean[size];
+            for (int position : candidates) {
+                assertTrue(position >= 0 && position < size, "position " + position + " of " + size);
+                assertFalse(seen[position], "position " + position + " picked twice");
+                seen[position] = true;
+            }
+        }
+    }
+
+    @Test
+    void selectGivesEveryPositionInOrderWhenCountCoversTheList() {
+        int[] placed = {0, 0, 0, 0};
+        int[] order = {3, 1, 0, 2};
+        int[] sizes = {1, 1, 1, 1};
+        int[] expected = {0, 1, 2, 3};
+        assertArrayEquals(expected, CandidateNeighbourhoods.select(4, 4, placed, placed, order, sizes, sizes, new SearchRandom(1)));
+        assertArrayEquals(expected, CandidateNeighbourhoods.select(9, 4, placed, placed, order, sizes, sizes, new SearchRandom(1)));
+    }
+
+    @Test
+    void selectStartsWithTheHighestTopsThenTheMostWaste() {
+        // Three shapes side by side on a sheet 6 wide, then one over the tallest and one left in the air at the left
+        int[] widths = {2, 2, 2, 2, 1, 1};
+        int[] heights = {1, 5, 2, 1, 1, 1};
+        int[] placedIndex = {0, 1, 2, 3, 4, 5};
+        int[] placedX = {0, 2, 4, 2, 0, 1};
+        int[] placedY = {0, 0, 0, 7, 3, 1};
+        int[] candidates = CandidateNeighbourhoods.select(3, 6, placedX, placedY, placedIndex, widths, heights,
+                new SearchRandom(3));
+        // Shape 3 has the highest top and the most waste, so the most waste left is under shape 4
+        assertEquals(3, candidates[0]);
+        assertEquals(4, candidates[1]);
+        assertTrue(candidates[2] != 3 && candidates[2] != 4);
+    }
+
+    /**
+     * @param size the amount of positions
+     * @param random the random values
+     * @return every position from 0 up to size in a random order
+     */
+    private static int[] shuffled(int size, Random random){
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
@@ -0,0 +1,98 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class ElitePoolTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void keepsTheBestSolutionsOfferedFromManyThreads() throws Exception {
+        Shape[] shapes = new Shape[8];
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = new Shape(Integer.toString(i), 1 + i, 2);
+        }
+        PackingInstance instance = new PackingInstance(shapes, 20);
+        ElitePool pool = new ElitePool(8);
+        int threads = 4;
+        ExecutorService offering = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                done.add(offering.submit(() -> {
+                    Random random = new Random(first);
+                    // Every solution has its own score, and each thread offers better and better solutions so most
+                    // offers replace a solution while the other threads are doing the same
+                    for (int score = 8000 - threads + first; score >= 0; score -= threads) {
+                        pool.offer(solution(instance, score, random));
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            offering.shutdown();
+            offering.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        List<Integer> kept = new ArrayList<>();
+        for (Solution s : pool.solutions()) {
+            kept.add(s.getScore());
+        }
+        Collections.sort(kept);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), kept);
+        assertEquals(0, pool.best().getScore());
+    }
+
+    @Test
+    void anIslandMovesToABetterSolutionFromThePool() throws IOException {
+        PackingInstance instance = ShapeListReader.read("ShapeLists/GivenLists.csv", false).get(2);
+        SearchEngine engine = new SearchEngine();
+        SearchConfig config = new SearchConfig.Builder().method(SearchMethod.RVNS).seed(8).maxCost(300).tMax(1000).build();
+        SearchResult alone = engine.search(instance, config);
+        // A long search finds a solution the short one cannot reach on its own
+        SearchResult elite = engine.search(instance, config.toBuilder().method(SearchMethod.BVNS).maxCost(20000).build());
+        assertTrue(elite.getScore() < alone.getScore());
+
+        ElitePool pool = new ElitePool(2);
+        pool.offer(elite.getSolution());
+        SearchResult island = engine.search(instance, config.toBuilder().elitePool(pool).migrationInterval(1).build());
+
+        assertTrue(pool.getMigrations() >= 1);
+        assertTrue(island.getScore() <= elite.getScore(), "island " + island.getScore() + ", elite " + elite.getScore());
+    }
+
+    /**
+     * @param instance the shapes and sheet width
+     * @param score the score to give the solution
+     * @param random the random values to shuffle the order with
+     * @return a solution of the shapes in a random order, with the score given
+     */
+    private static Solution solution(PackingInstance instance, int score, Random random){
+        int[] order = new int[instance.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return Solution.restore(instance, new SearchCheckpoint.SavedSolution(score, order, new long[1]), new SearchRandom(score),
+                null, null, null, 0);
+    }
+}
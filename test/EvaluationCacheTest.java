@@ -0,0 +1,120 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EvaluationCacheTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void keepsTheEntriesClockKeepsWithSpreadHashes() {
+        for (int capacity : new int[]{1, 2, 7, 8, 100}) {
+            checkAgainstClock(capacity, false, capacity);
+        }
+    }
+
+    @Test
+    void keepsTheEntriesClockKeepsWhenHashesShareSlots() {
+        // Hashes with only a few low bits land on the same few slots of the index, across its end, so lookups go
+        // through long runs of slots and removing an entry has to move the ones after it back
+        for (int capacity : new int[]{5, 8, 13}) {
+            checkAgainstClock(capacity, true, capacity);
+        }
+    }
+
+    @Test
+    void emptyCacheKeepsNothing() {
+        EvaluationCache cache = new EvaluationCache(0);
+        cache.put(5, 10);
+        assertEquals(-1, cache.get(5));
+        assertEquals(1, cache.getMisses());
+    }
+
+    /**
+     * Look up and store orders the way the search does, checking the cache against a plain list of entries replaced
+     * with the CLOCK algorithm
+     * @param capacity the most scores to keep
+     * @param clustered whether the hashes only use a few slots of the index
+     * @param seed the seed of the orders used
+     */
+    private static void checkAgainstClock(int capacity, boolean clustered, long seed){
+        Random random = new Random(seed);
+        EvaluationCache cache = new EvaluationCache(capacity);
+        int slots = Integer.highestOneBit(capacity) << 2;
+        // More orders than the cache holds so some are replaced and later stored again
+        long[] orders = new long[capacity * 3 + 2];
+        for (int i = 0; i < orders.length; i++) {
+            long high = random.nextLong() & -(long) slots;
+            orders[i] = clustered ? high | ((slots - 2 + random.nextInt(4)) & (slots - 1)) : random.nextLong();
+        }
+
+        long[] kept = new long[capacity];
+        boolean[] used = new boolean[capacity];
+        Map<Long, Integer> scores = new HashMap<>();
+        int size = 0, hand = 0;
+        long hits = 0, misses = 0;
+        for (int step = 0; step < 5000; step++) {
+            int o = random.nextInt(orders.length);
+            long hash = orders[o];
+            int position = find(kept, size, hash);
+            String at = "capacity " + capacity + " step " + step;
+            if (position != -1) {
+                assertEquals((int) scores.get(hash), cache.get(hash), at);
+                used[position] = true;
+                hits++;
+                continue;
+            }
+            assertEquals(-1, cache.get(hash), at);
+            misses++;
+            int score = random.nextInt(1000);
+            cache.put(hash, score);
+            if (size < capacity) {
+                position = size++;
+            } else {
+                while (used[hand]) {
+                    used[hand] = false;
+                    hand = (hand + 1) % capacity;
+                }
+                position = hand;
+                hand = (hand + 1) % capacity;
+                scores.remove(kept[position]);
+            }
+            kept[position] = hash;
+            used[position] = false;
+            scores.put(hash, score);
+        }
+        assertEquals(hits, cache.getHits());
+        assertEquals(misses, cache.getMisses());
+
+        // Every order kept is still found after all the replacements, and no other order is
+        int found = 0;
+        for (long hash : orders) {
+            int score = cache.get(hash);
+            if (score != -1) {
+                found++;
+                assertEquals(scores.get(hash), score, "capacity " + capacity);
+            }
+        }
+        assertEquals(capacity, found, "capacity " + capacity);
+        assertEquals(capacity, scores.size(), "capacity " + capacity);
+    }
+
+    /**
+     * @param kept the hashes kept
+     * @param size the amount of hashes kept
+     * @param hash the hash to find
+     * @return where the hash is kept, or -1 if it is not kept
+     */
+    private static int find(long[] kept, int size, long hash){
+        for (int i = 0; i < size; i++) {
+            if (kept[i] == hash) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
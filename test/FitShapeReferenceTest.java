@@ -0,0 +1,260 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FitShapeReferenceTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    // Checks the scores and placements of solutions against a plain fit of the shapes onto an array of the y value
+    // at every x, which is how the shapes were fitted before the skyline, reuse of placements and cache were added.
+
+    @Test
+    void placementsMatchTheReferenceOnRandomOrders() {
+        Random random = new Random(11);
+        for (int test = 0; test < 300; test++) {
+            PackingInstance instance = randomInstance(random);
+            int size = instance.size();
+            int[] order = shuffled(size, random);
+            long[] rotated = new long[(size + 63) >>> 6];
+            for (int shape = 0; shape < size; shape++) {
+                // Only turn shapes that still fit across the sheet, as the search does
+                if (random.nextBoolean() && instance.getWidth(shape, true) <= instance.getBoxWidth()) {
+                    rotated[shape >>> 6] |= 1L << shape;
+                }
+            }
+            Solution x = Solution.restore(instance, new SearchCheckpoint.SavedSolution(0, order, rotated), new SearchRandom(test),
+                    null, null, null, 0);
+            assertMatchesReference(instance, x, "test " + test);
+        }
+    }
+
+    @Test
+    void scoresMatchTheReferenceWhenFittedFromTheStart() {
+        Random random = new Random(12);
+        for (int test = 0; test < 300; test++) {
+            PackingInstance instance = randomInstance(random);
+            Solution x = new Solution(instance, test);
+            assertEquals(referenceScore(instance.getBoxWidth(), x.getOrder()), x.getScore(), "test " + test);
+        }
+    }
+
+    @Test
+    void aFullWidthShapeInTheAirIsPlacedBelowTheSkyline() {
+        // The last shape has no position beside the others, so after nine passes it is placed over the left at a y of -1
+        Shape[] shapes = {new Shape("a", 2, 1), new Shape("b", 2, 3), new Shape("c", 4, 1)};
+        PackingInstance instance = new PackingInstance(shapes, 4);
+        Solution x = new Solution(instance, 1);
+        assertEquals(0, x.getScore());
+        assertEquals(referenceScore(4, x.getOrder()), x.getScore());
+        DrawingDimensions[] placed = x.getDrawDimensions();
+        assertEquals("c", placed[2].shape.getId());
+        assertEquals(0, placed[2].x);
+        assertEquals(-1, placed[2].y);
+        assertMatchesReference(instance, x, "full width");
+    }
+
+    @Test
+    void neighboursMatchTheReferenceWithAndWithoutTheCache() {
+        Random random = new Random(13);
+        for (int test = 0; test < 40; test++) {
+            PackingInstance instance = randomInstance(random);
+            long moves = random.nextLong();
+            int[] plain = searchAndCheck(instance, null, test, moves);
+            int[] cached = searchAndCheck(instance, new EvaluationCache(256), test, moves);
+            for (int step = 0; step < plain.length; step++) {
+                assertEquals(plain[step], cached[step], "test " + test + " step " + step);
+            }
+        }
+    }
+
+    /**
+     * Walk through neighbourhoods of an instance checking every solution reached against the reference
+     * @param instance the shapes and sheet width
+     * @param cache the scores of orders already fitted, or null to fit every order
+     * @param seed the seed of the search
+     * @param moves the seed of the neighbourhoods picked
+     * @return the score after each step
+     */
+    private static int[] searchAndCheck(PackingInstance instance, EvaluationCache cache, int seed, long moves){
+        Random pick = new Random(moves);
+        Solution x = new Solution(instance, new SearchRandom(seed), null, cache, null);
+        int[] scores = new int[30];
+        for (int step = 0; step < scores.length; step++) {
+            int k = 1 + pick.nextInt(9);
+            switch (pick.nextInt(3)) {
+                case 0:
+                    x = x.Shake(k);
+                    break;
+                case 1:
+                    x = x.FirstImprovment(k);
+                    break;
+                default:
+                    x = x.getBestInNeighborhood(k);
+                    break;
+            }
+            assertEquals(referenceScore(instance.getBoxWidth(), x.getOrder()), x.getScore(), "seed " + seed + " step " + step);
+            // Check the placements only some of the time so later neighbours are also made from unrecorded solutions
+            if (pick.nextBoolean()) {
+                assertMatchesReference(instance, x, "seed " + seed + " step " + step);
+            }
+            scores[step] = x.getScore();
+        }
+        return scores;
+    }
+
+    /**
+     * Check every placement of a solution is the same as fitting its order with the reference
+     * @param instance the shapes and sheet width
+     * @param x the solution
+     * @param message the test being checked
+     */
+    private static void assertMatchesReference(PackingInstance instance, Solution x, String message){
+        Shape[] order = x.getOrder();
+        List<int[]> expected = new ArrayList<>();
+        referenceFit(instance.getBoxWidth(), order, expected);
+        DrawingDimensions[] placed = x.getDrawDimensions();
+        assertEquals(expected.size(), placed.length, message);
+        for (int p = 0; p < placed.length; p++) {
+            int[] place = expected.get(p);
+            Shape shape = order[place[2]];
+            String at = message + " placement " + p;
+            assertEquals(shape.getId(), placed[p].shape.getId(), at);
+            assertEquals(shape.getWidth(), placed[p].shape.getWidth(), at);
+            assertEquals(shape.getHeight(), placed[p].shape.getHeight(), at);
+            assertEquals(place[0], placed[p].x, at);
+            assertEquals(place[1], placed[p].y, at);
+        }
+    }
+
+    /**
+     * @param boxWidth the width of the sheet
+     * @param order the shapes in the order they are fitted
+     * @return the greatest y value reached by fitting the shapes with the reference
+     */
+    private static int referenceScore(int boxWidth, Shape[] order){
+        return referenceFit(boxWidth, order, new ArrayList<>());
+    }
+
+    /**
+     * Fits shapes onto the sheet the plain way, looking across every x value of an array of the y value at each x
+     * @param boxWidth the width of the sheet
+     * @param order the shapes in the order they are fitted
+     * @param placements filled with the x, y and index in the order of each shape in the order they are added
+     * @return the greatest y value reached
+     */
+    private static int referenceFit(int boxWidth, Shape[] order, List<int[]> placements){
+        int[] yBottomLine = new int[boxWidth];
+        List<Integer> toAdd = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            toAdd.add(i);
+        }
+        int x = 0, passes = 0;
+        while (!toAdd.isEmpty()) {
+            // After a pass with no fit move x to the next y level, going back to the left at the end
+            if (1 < passes) {
+                if (x < boxWidth && x >= 0) {
+                    int yOld = yBottomLine[x];
+                    while (x < boxWidth && yOld == yBottomLine[x]) {
+                        x++;
+                    }
+                }
+                if (x >= boxWidth) {
+                    x = 0;
+                }
+            }
+            for (int i = 0; i < toAdd.size(); i++) {
+                int index = toAdd.get(i);
+                int width = order[index].getWidth();
+                int height = order[index].getHeight();
+                int widthToFitIn = 0;
+                for (int j = x; j < boxWidth && yBottomLine[j] <= yBottomLine[x]; j++) {
+                    widthToFitIn++;
+                }
+                if (width <= widthToFitIn) {
+                    placements.add(new int[]{x, yBottomLine[x], index});
+                    int newY = yBottomLine[x] + height;
+                    for (int j = x; j < x + width; j++) {
+                        yBottomLine[j] = newY;
+                    }
+                    x += width;
+                    // Move x back to fill in gaps
+                    while (x > 0 && x < boxWidth && yBottomLine[x] >= yBottomLine[x - 1]) {
+                        x--;
+                    }
+                    passes = 0;
+                    toAdd.remove(i);
+                    break;
+                } else if (passes > 8) {
+                    // Place the shape where the greatest y under it is lowest, leaving out the right most position,
+                    // and over the left at a y of -1 if there are no positions
+                    int bestX = 0;
+                    int lowestMaxY = -1;
+                    for (int left = 0; left < boxWidth - width; left++) {
+                        int yMax = 0;
+                        for (int j = left; j < left + width; j++) {
+                            yMax = Math.max(yMax, yBottomLine[j]);
+                        }
+                        if (lowestMaxY == -1 || lowestMaxY > yMax) {
+                            lowestMaxY = yMax;
+                            bestX = left;
+                        }
+                    }
+                    placements.add(new int[]{bestX, lowestMaxY, index});
+                    for (int j = bestX; j < bestX + width; j++) {
+                        yBottomLine[j] = lowestMaxY + height;
+                    }
+                    x = bestX + width;
+                    passes = 0;
+                    toAdd.remove(i);
+                    break;
+                }
+            }
+            passes++;
+        }
+        int yLargest = 0;
+        for (int y : yBottomLine) {
+            yLargest = Math.max(yLargest, y);
+        }
+        return yLargest;
+    }
+
+    /**
+     * Creates at least two shapes no wider than the sheet, some as wide as the sheet and some too long to turn
+     * @param random the random values
+     * @return the instance
+     */
+    private static PackingInstance randomInstance(Random random){
+        int boxWidth = 3 + random.nextInt(20);
+        Shape[] shapes = new Shape[2 + random.nextInt(40)];
+        for (int i = 0; i < shapes.length; i++) {
+            int width = random.nextInt(8) == 0 ? boxWidth : 1 + random.nextInt(boxWidth);
+            int height = 1 + random.nextInt(boxWidth + 5);
+            shapes[i] = new Shape(Integer.toString(i), width, height);
+        }
+        return new PackingInstance(shapes, boxWidth);
+    }
+
+    /**
+     * @param size the amount of positions
+     * @param random the random values
+     * @return every position from 0 up to size in a random order
+     */
+    private static int[] shuffled(int size, Random random){
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+}
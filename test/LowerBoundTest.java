@@ -0,0 +1,67 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LowerBoundTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void areaBoundRoundsUpTheAreaOverTheWidth() {
+        // Five shapes with an area of 2 on a sheet 4 wide cover 10 / 4 rounded up
+        Shape[] shapes = new Shape[5];
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = new Shape(Integer.toString(i), 2, 1);
+        }
+        assertEquals(3, new PackingInstance(shapes, 4).getLowerBound());
+    }
+
+    @Test
+    void tallestBoundUsesTheLowestWayTheShapeFits() {
+        // Turned on its side the shape would be 8 wide, too wide for the sheet, so it stands 8 high
+        assertEquals(8, new PackingInstance(new Shape[]{new Shape("a", 1, 8)}, 5).getLowerBound());
+        // This one fits on its side, where it is only 3 high
+        assertEquals(3, new PackingInstance(new Shape[]{new Shape("a", 3, 7)}, 10).getLowerBound());
+    }
+
+    @Test
+    void wideBoundStacksShapesWiderThanHalfTheSheet() {
+        // No two of the shapes fit beside each other so they are at least 3 times 6 high, above the area bound of 11
+        Shape[] shapes = {new Shape("a", 6, 6), new Shape("b", 6, 6), new Shape("c", 6, 6)};
+        assertEquals(18, new PackingInstance(shapes, 10).getLowerBound());
+    }
+
+    @Test
+    void aShapeTooWideToFitOnlyCountsTowardsTheArea() {
+        // The 9 by 9 shape never fits on the sheet 4 wide, so it adds nothing to the tallest or wide bounds
+        Shape[] shapes = {new Shape("a", 9, 9), new Shape("b", 1, 1)};
+        PackingInstance instance = new PackingInstance(shapes, 4);
+        assertEquals(21, instance.getLowerBound());
+        assertTrue(instance.hasFullWidthShape());
+    }
+
+    @Test
+    void gapIsAPercentageOfTheBound() {
+        assertEquals(50.0, SearchResult.gap(3, 2), 1e-9);
+        assertEquals(2.5, SearchResult.gap(41, 40), 1e-9);
+        assertEquals(0.0, SearchResult.gap(5, 0), 1e-9);
+    }
+
+    @Test
+    void searchStopsOnceItReachesTheBound() {
+        // The first fit stands the second shape up 3 high beside the first, turning it stacks them 2 high
+        Shape[] shapes = {new Shape("a", 3, 1), new Shape("b", 1, 3)};
+        PackingInstance instance = new PackingInstance(shapes, 4);
+        assertEquals(2, instance.getLowerBound());
+        assertEquals(3, new Solution(instance, 1).getScore());
+        SearchEngine engine = new SearchEngine();
+        for (SearchMethod method : SearchMethod.values()) {
+            SearchConfig config = new SearchConfig.Builder().method(method).seed(1).maxCost(100000).tMax(1000).build();
+            SearchResult result = engine.search(instance, config);
+            assertEquals(2, result.getScore(), method.toString());
+            assertEquals(0.0, result.getGap(), 1e-9, method.toString());
+            assertTrue(result.getCost() < 1000, method + " searched " + result.getCost() + " solutions");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NeighbourhoodBanditTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void everyArmIsTriedOnceInOrderBeforeAnyRepeats() {
+        NeighbourhoodBandit bandit = new NeighbourhoodBandit(5);
+        for (int k = 1; k <= 5; k++) {
+            assertEquals(k, bandit.select());
+            // The first arm pays out every time but is still not chosen again until every arm has been tried
+            bandit.update(k, k == 1);
+        }
+        assertEquals(1, bandit.select());
+    }
+
+    @Test
+    void anArmThatAlwaysSucceedsIsChosenMost() {
+        NeighbourhoodBandit bandit = new NeighbourhoodBandit(4);
+        int[] chosen = new int[5];
+        for (int play = 0; play < 400; play++) {
+            int k = bandit.select();
+            chosen[k]++;
+            bandit.update(k, k == 3);
+        }
+        for (int k = 1; k <= 4; k++) {
+            if (k != 3) {
+                assertTrue(chosen[3] > 2 * chosen[k], "k = 3 chosen " + chosen[3] + " times, k = " + k + " " + chosen[k] + " times");
+            }
+        }
+        assertEquals(400, bandit.getPlays()[0] + bandit.getPlays()[1] + bandit.getPlays()[2] + bandit.getPlays()[3]);
+        assertEquals(chosen[3], bandit.getSuccesses()[2]);
+    }
+
+    @Test
+    void onlyMethodsThatChooseKHaveABandit() throws IOException {
+        PackingInstance instance = ShapeListReader.read("ShapeLists/ToyLists.csv", false).get(0);
+        SearchEngine engine = new SearchEngine();
+        for (SearchMethod method : SearchMethod.values()) {
+            String file = folder.resolve("run").toString();
+            SearchConfig config = new SearchConfig.Builder().method(method).seed(3).maxCost(500).tMax(1000).adaptive(true)
+                    .checkpointFile(file).build();
+            engine.search(instance, config);
+            // The finished search leaves a checkpoint holding its bandit
+            SearchCheckpoint saved = SearchCheckpoint.read(Path.of(file + "." + method + ".3"));
+            if (method == SearchMethod.VND || method == SearchMethod.GVNS) {
+                assertNull(saved.banditPlays, method.toString());
+            } else {
+                assertNotNull(saved.banditPlays, method.toString());
+            }
+        }
+    }
+}
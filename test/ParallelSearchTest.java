@@ -0,0 +1,40 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelSearchTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void poolGivesTheSameSearchAsOneThread() throws IOException {
+        PackingInstance instance = ShapeListReader.read("ShapeLists/GivenLists.csv", false).get(2);
+        SearchEngine engine = new SearchEngine();
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (SearchMethod method : SearchMethod.values()) {
+                // Stop on the amount of solutions tested so the time taken does not change the search
+                SearchConfig config = new SearchConfig.Builder().method(method).seed(5563).maxCost(6000).tMax(1000).build();
+                SearchTelemetry aloneCounts = new SearchTelemetry();
+                SearchTelemetry pooledCounts = new SearchTelemetry();
+                SearchResult alone = engine.search(instance, config.toBuilder().telemetry(aloneCounts).build());
+                SearchResult pooled = engine.search(instance, config.toBuilder().pool(pool).telemetry(pooledCounts).build());
+                assertEquals(alone.getScore(), pooled.getScore(), method + " score");
+                assertEquals(alone.getCost(), pooled.getCost(), method + " cost");
+                assertArrayEquals(alone.getSolution().getOrder(), pooled.getSolution().getOrder(), method + " order");
+                // Neighbours evaluated after the first improvement of a chunk are not counted as improvements. VND and GVNS
+                // search whole neighbourhoods, where which neighbours are stopped early depends on which thread finishes first.
+                if (method != SearchMethod.VND && method != SearchMethod.GVNS) {
+                    assertArrayEquals(aloneCounts.getMoveImprovements(), pooledCounts.getMoveImprovements(), method + " improvements");
+                    assertEquals(aloneCounts.getImprovementsByK(), pooledCounts.getImprovementsByK(), method + " improvements by k");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
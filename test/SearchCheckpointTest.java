@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SearchCheckpointTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @TempDir
+    Path folder;
+
+    private static SearchCheckpoint checkpoint(long[] rotated){
+        SearchCheckpoint.SavedSolution current = new SearchCheckpoint.SavedSolution(12, new int[]{2, 0, 1}, rotated);
+        return new SearchCheckpoint(SearchMethod.BVNS, 4563, 9, 1, 0.01, 0, 3, 10, false, 40, 123456789L, 2, 1,
+                new long[]{5, 7}, current, null, null, null);
+    }
+
+    @Test
+    void aWrittenCheckpointIsReadBack() throws IOException {
+        Path file = folder.resolve("run.ck");
+        checkpoint(new long[]{4}).write(file);
+
+        SearchCheckpoint read = SearchCheckpoint.read(file);
+        assertEquals(SearchMethod.BVNS, read.method);
+        assertEquals(40, read.cost);
+        assertEquals(12, read.current.score);
+        assertArrayEquals(new int[]{2, 0, 1}, read.current.order);
+        assertArrayEquals(new long[]{4}, read.current.rotated);
+        assertArrayEquals(new long[]{5, 7}, read.random);
+        assertNull(read.current.candidates);
+        assertFalse(Files.exists(folder.resolve("run.ck.tmp")));
+    }
+
+    @Test
+    void pickedCandidatesAreReadBack() throws IOException {
+        Path file = folder.resolve("run.ck");
+        SearchCheckpoint.SavedSolution current = new SearchCheckpoint.SavedSolution(12, new int[]{2, 0, 1}, new long[]{4},
+                new int[]{1, 2});
+        new SearchCheckpoint(SearchMethod.VND, 4563, 9, 1, 0.01, 2, 3, 10, false, 40, 123456789L, 2, 1,
+                new long[]{5, 7}, current, null, null, null).write(file);
+
+        assertArrayEquals(new int[]{1, 2}, SearchCheckpoint.read(file).current.candidates);
+    }
+
+    @Test
+    void aResumedSearchEndsTheSameAsOneNeverStopped() throws IOException {
+        PackingInstance instance = ShapeListReader.read("ShapeLists/GivenLists.csv", false).get(2);
+        SearchEngine engine = new SearchEngine();
+        for (SearchMethod method : SearchMethod.values()) {
+            // Only try a few positions so the positions picked for a solution are part of what is saved
+            SearchConfig config = new SearchConfig.Builder().method(method).seed(29).maxCost(8000).tMax(1000).candidates(20)
+                    .build();
+            AtomicInteger found = new AtomicInteger();
+            SearchResult uninterrupted = engine.search(instance, config.toBuilder().listener(progress -> found.incrementAndGet()).build());
+            assertTrue(found.get() >= 4, method + " found " + found.get() + " improvements");
+
+            // Save at the start of every step and stop the search as if it was killed, half way through its improvements
+            // and after a step that found nothing, so the solution saved has already picked its positions
+            SearchConfig saved = config.toBuilder().checkpointFile(folder.resolve("run").toString()).checkpointPeriod(0).build();
+            int[] improvements = {0};
+            SearchListener stopper = progress -> {
+                if (++improvements[0] >= found.get() / 2 && progress.getK() > 1) {
+                    throw new IllegalStateException("Stopped");
+                }
+            };
+            assertThrows(IllegalStateException.class, () -> engine.search(instance, saved.toBuilder().listener(stopper).build()),
+                    method.toString());
+            SearchResult resumed = engine.search(instance, saved.toBuilder().resume(true).build());
+
+            assertEquals(uninterrupted.getScore(), resumed.getScore(), method.toString());
+            assertEquals(uninterrupted.getCost(), resumed.getCost(), method.toString());
+            assertArrayEquals(uninterrupted.getSolution().getOrder(), resumed.getSolution().getOrder(), method.toString());
+        }
+    }
+
+    @Test
+    void aFailedMoveRemovesTheTemporaryFile() throws IOException {
+        // A folder that is not empty cannot be replaced by the checkpoint
+        Path file = folder.resolve("run.ck");
+        Files.createDirectory(file);
+        Files.writeString(file.resolve("inside"), "x");
+
+        assertThrows(IOException.class, () -> checkpoint(new long[]{4}).write(file));
+        assertFalse(Files.exists(folder.resolve("run.ck.tmp")));
+    }
+
+    @Test
+    void aCheckpointThatCannotBeWrittenIsReportedAndLeavesNoFile() {
+        Path file = folder.resolve("run.ck");
+        PackingInstance instance = ShapeSearch.readCSV("ShapeLists/ToyLists.csv", 1, false);
+        CheckpointWriter writer = new CheckpointWriter(file, 60, System.nanoTime(), new SearchConfig.Builder().build(), instance);
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(errors, true, StandardCharsets.UTF_8));
+        try {
+            // The missing rotations fail part way through writing
+            writer.saveNow(checkpoint(null));
+        } finally {
+            System.setErr(err);
+        }
+
+        String reported = errors.toString(StandardCharsets.UTF_8);
+        assertTrue(reported.contains("Could not write the checkpoint") && reported.contains("NullPointerException"), reported);
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(folder.resolve("run.ck.tmp")));
+    }
+}
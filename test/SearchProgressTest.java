@@ -0,0 +1,44 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class SearchProgressTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void searchingFromThePublishedSolutionLeavesTheSearchAlone() throws IOException {
+        PackingInstance instance = ShapeListReader.read("ShapeLists/GivenLists.csv", false).get(2);
+        SearchEngine engine = new SearchEngine();
+        SearchConfig config = new SearchConfig.Builder().method(SearchMethod.BVNS).seed(17).maxCost(20000).tMax(1000)
+                .cacheSize(4096).build();
+        SearchResult alone = engine.search(instance, config);
+
+        BestSoFar best = new BestSoFar();
+        CompletableFuture<SearchResult> watched = CompletableFuture.supplyAsync(
+                () -> engine.search(instance, config.toBuilder().listener(best).build()));
+        // Search from each published solution on this thread while the search carries on
+        int k = 1;
+        while (!watched.isDone()) {
+            SearchProgress progress = best.get();
+            if (progress != null) {
+                Solution published = progress.getSolution();
+                published.Shake(k).FirstImprovment(k);
+                published.getBestInNeighborhood(k);
+                k = k % 9 + 1;
+            }
+        }
+        SearchResult result = watched.join();
+
+        assertNotNull(best.get());
+        assertEquals(alone.getScore(), result.getScore());
+        assertEquals(alone.getCost(), result.getCost());
+        assertArrayEquals(alone.getSolution().getOrder(), result.getSolution().getOrder());
+        assertEquals(alone.getCacheHits(), result.getCacheHits());
+    }
+}
@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class SearchTelemetryTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @Test
+    void searchesInTheSameJvmRegisterUnderTheirOwnNames() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        SearchTelemetry first = new SearchTelemetry();
+        SearchTelemetry second = new SearchTelemetry();
+        ObjectName firstName = first.register("ShapeSearch");
+        ObjectName secondName = second.register("ShapeSearch");
+        assertNotEquals(firstName, secondName);
+        assertTrue(server.isRegistered(firstName));
+        assertTrue(server.isRegistered(secondName));
+
+        first.unregister();
+        second.unregister();
+        assertFalse(server.isRegistered(firstName));
+        assertFalse(server.isRegistered(secondName));
+        // Unregistering again does nothing
+        first.unregister();
+    }
+
+    @Test
+    void theDumpStopsOnceItsSchedulerIsShutDown() throws InterruptedException {
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(printed, true, StandardCharsets.UTF_8);
+        ScheduledExecutorService dump = new SearchTelemetry().dumpEvery(0.005, out);
+        while (printed.size() == 0) {
+            Thread.sleep(5);
+        }
+        dump.shutdown();
+        assertTrue(dump.awaitTermination(1, TimeUnit.SECONDS));
+        int size = printed.size();
+        Thread.sleep(50);
+        assertEquals(size, printed.size());
+    }
+}
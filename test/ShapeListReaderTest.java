@@ -0,0 +1,42 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ShapeListReaderTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void limitKeepsListsShorterThanTen() throws IOException {
+        List<PackingInstance> instances = ShapeListReader.read("ShapeLists/ToyLists.csv", true);
+        assertEquals(3, instances.size());
+        assertEquals(9, instances.get(0).size());
+        assertEquals(8, instances.get(1).size());
+        assertEquals(10, instances.get(2).size());
+    }
+
+    @Test
+    void emptyCellsAtTheEndOfTheHeaderAreNotLists() throws IOException {
+        Path file = folder.resolve("lists.csv");
+        Files.writeString(file, ",name:,A,,,name:,B,,,,,,,,\n"
+                + ",size:,2,,,size:,1,,,,,,,,\n"
+                + "no,width,height,,no,width,height,,,,,,,\n"
+                + "1,3,2,,1,4,4,,,,,,,\n"
+                + "2,5,1,,,,,,,,,,,\n");
+        List<PackingInstance> instances = ShapeListReader.read(file.toString(), false);
+        assertEquals(2, instances.size());
+        assertEquals("A", instances.get(0).getName());
+        assertEquals(2, instances.get(0).size());
+        assertEquals("B", instances.get(1).getName());
+        assertEquals(1, instances.get(1).size());
+    }
+}
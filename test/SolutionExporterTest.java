@@ -0,0 +1,38 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SolutionExporterTest {
+
+    //James_Sheaf-Morrison_1314151_Meleena_Radcliffe_1319196
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void writingAPngLeavesTheHeadlessSettingAlone() throws IOException {
+        // show draws a window after -png has written its file, which fails if the JVM was switched to headless
+        String before = System.getProperty("java.awt.headless");
+        DrawingDimensions[] shapes = {
+                new DrawingDimensions(0, 0, new Shape("1", 4, 3)),
+                new DrawingDimensions(4, 0, new Shape("2", 6, 2))
+        };
+        Path file = folder.resolve("fit.png");
+
+        SolutionExporter.writePng(file.toString(), 10, 8, shapes);
+
+        assertEquals(before, System.getProperty("java.awt.headless"));
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertNotNull(image);
+        assertEquals(10 * 10 + 1, image.getWidth());
+        assertEquals(8 * 10 + 1, image.getHeight());
+    }
+}